@@ -0,0 +1,82 @@
+package de.egosanto.chemie.benchmark;
+
+import de.egosanto.chemie.BatchResult;
+import de.egosanto.chemie.MolecularWeightCalculator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * BatchThroughputBenchmark description:
+ * Durchsatz der Stapelberechnung in Formeln pro Sekunde, sequentiell und parallel mit
+ * 1 bis N Threads. Die Anzahl der Threads wird über den Parameter {@code threads}
+ * gesteuert, z.B. {@code -p threads=1,2,4,8,16}.
+ * Date: 18.10.2026
+ * Project Name: chemie
+ *
+ * @author Toni Zeidler
+ * @see MolecularWeightCalculator#calculateMolecularWeightsParallel(List, double[], ForkJoinPool)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchThroughputBenchmark {
+
+    static final int SIZE = 1_000_000;
+
+    private static final String[] FORMELN = {
+        "H2O", "CO2", "C6H12O6", "NaCl", "Ca(OH)2", "C8H10N4O2", "CuSO4·5H2O", "C2H5OH", "[Fe(CN)6]^4-", "C55H72MgN4O5"
+    };
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private List<String> formulas;
+    private double[] weights;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        formulas = new ArrayList<>(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            formulas.add(FORMELN[i % FORMELN.length]);
+        }
+        weights = new double[SIZE];
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public BatchResult sequentiell() {
+        return MolecularWeightCalculator.calculateMolecularWeights(formulas, weights);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public BatchResult parallel() {
+        return MolecularWeightCalculator.calculateMolecularWeightsParallel(formulas, weights, pool);
+    }
+}
@@ -0,0 +1,123 @@
+package de.egosanto.chemie.benchmark;
+
+import de.egosanto.chemie.CompositionMatrix;
+import de.egosanto.chemie.MolecularWeightCalculator;
+import de.egosanto.chemie.utils.Element;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * CompositionMatrixBenchmark description:
+ * Berechnet die Molekulargewichte von {@code rows} CHNOPS-Verbindungen einmal über
+ * Formeltexte mit {@link MolecularWeightCalculator#calculateMolecularWeight(CharSequence)}
+ * und einmal direkt aus den Anzahlen mit {@link CompositionMatrix}, spaltenweise dicht
+ * und als CSR, jeweils auch mit Massenanteilen.
+ * Date: 18.10.2026
+ * Project Name: chemie
+ *
+ * @author Toni Zeidler
+ * @see CompositionMatrix
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class CompositionMatrixBenchmark {
+
+    private static final Element[] CHNOPS = {Element.C, Element.H, Element.N, Element.O, Element.P, Element.S};
+
+    @Param({"1000000", "4000000"})
+    public int rows;
+
+    private String[] formulas;
+    private int[][] columns;
+    private int[] rowOffsets;
+    private int[] columnIndices;
+    private int[] values;
+    private double[] masses;
+    private double[] percents;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        formulas = new String[rows];
+        columns = new int[CompositionMatrix.COLUMNS][];
+        for (Element e : CHNOPS) {
+            columns[e.ordinal()] = new int[rows];
+        }
+        rowOffsets = new int[rows + 1];
+        columnIndices = new int[rows * CHNOPS.length];
+        values = new int[rows * CHNOPS.length];
+        int n = 0;
+        // In Ordnungszahl-Reihenfolge: H, C, N, O, P, S.
+        Element[] sortiert = {Element.H, Element.C, Element.N, Element.O, Element.P, Element.S};
+        for (int r = 0; r < rows; r++) {
+            StringBuilder text = new StringBuilder();
+            for (Element e : CHNOPS) {
+                int count = e == Element.C || e == Element.H ? random.nextInt(60) + 1
+                        : random.nextInt(3) == 0 ? random.nextInt(8) : 0;
+                columns[e.ordinal()][r] = count;
+                if (count > 0) {
+                    text.append(e.symbol()).append(count);
+                }
+            }
+            for (Element e : sortiert) {
+                int count = columns[e.ordinal()][r];
+                if (count > 0) {
+                    columnIndices[n] = e.ordinal();
+                    values[n++] = count;
+                }
+            }
+            rowOffsets[r + 1] = n;
+            formulas[r] = text.toString();
+        }
+        masses = new double[rows];
+        percents = new double[n];
+    }
+
+    @Benchmark
+    public double[] perString() {
+        for (int r = 0; r < rows; r++) {
+            masses[r] = MolecularWeightCalculator.calculateMolecularWeight(formulas[r]);
+        }
+        return masses;
+    }
+
+    @Benchmark
+    public double[] dense() {
+        CompositionMatrix.masses(columns, rows, masses);
+        return masses;
+    }
+
+    @Benchmark
+    public double[] csr() {
+        CompositionMatrix.masses(rowOffsets, columnIndices, values, masses);
+        return masses;
+    }
+
+    @Benchmark
+    public double[][] densePercents() {
+        CompositionMatrix.masses(columns, rows, masses);
+        return CompositionMatrix.massPercents(columns, rows, masses);
+    }
+
+    @Benchmark
+    public double[] csrPercents() {
+        CompositionMatrix.masses(rowOffsets, columnIndices, values, masses);
+        CompositionMatrix.massPercents(rowOffsets, columnIndices, values, masses, percents);
+        return percents;
+    }
+}
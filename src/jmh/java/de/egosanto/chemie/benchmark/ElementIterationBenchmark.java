@@ -0,0 +1,83 @@
+package de.egosanto.chemie.benchmark;
+
+import de.egosanto.chemie.utils.Element;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ElementIterationBenchmark description:
+ * Misst das Durchlaufen aller Elemente über {@link Element#values()}, das bei jedem
+ * Aufruf eine Kopie des Arrays mit 118 Einträgen erzeugt, im Vergleich zur
+ * zwischengespeicherten Liste {@link Element#alle()} und dem Zugriff über die
+ * Ordnungszahl {@link Element#atomGewicht(int)}.
+ * Date: 18.10.2026
+ * Project Name: chemie
+ *
+ * @author Toni Zeidler
+ * @see Element
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ElementIterationBenchmark {
+
+    @Benchmark
+    public double values() {
+        double sum = 0;
+        for (Element e : Element.values()) {
+            sum += e.atomGewicht();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int valuesElektronen() {
+        int sum = 0;
+        for (Element e : Element.values()) {
+            for (int n : e.elektronenKonfiguration()) {
+                sum += n;
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double alle() {
+        double sum = 0;
+        for (Element e : Element.alle()) {
+            sum += e.atomGewicht();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double atomGewichte() {
+        double sum = 0;
+        for (int z = 1, n = Element.alle().size(); z <= n; z++) {
+            sum += Element.atomGewicht(z);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int alleElektronenInSchale() {
+        int sum = 0;
+        for (Element e : Element.alle()) {
+            for (int i = 0; i < e.schalenAnzahl(); i++) {
+                sum += e.elektronenInSchale(i);
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,87 @@
+package de.egosanto.chemie.benchmark;
+
+import de.egosanto.chemie.utils.Element;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * ElementLookupBenchmark description:
+ * Vergleicht die Symbolauflösung über {@link Element#valueOf(String)} mit der
+ * Symboltabelle {@link Element#bySymbol(char, char)}. Wie im Parser liegen die
+ * Symbole als Ausschnitt einer Formel vor, für {@code valueOf} muss also erst ein
+ * String erzeugt werden.
+ * Date: 18.10.2026
+ * Project Name: chemie
+ *
+ * @author Toni Zeidler
+ * @see Element
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ElementLookupBenchmark {
+
+    /** Alle Symbole hintereinander, z.B. "HHeLiBe...". */
+    private final StringBuilder symbole = new StringBuilder();
+    private int[] starts;
+    private int[] ends;
+
+    public ElementLookupBenchmark() {
+        Element[] elements = Element.values();
+        starts = new int[elements.length];
+        ends = new int[elements.length];
+        for (int i = 0; i < elements.length; i++) {
+            starts[i] = symbole.length();
+            symbole.append(elements[i].symbol());
+            ends[i] = symbole.length();
+        }
+    }
+
+    @Benchmark
+    public void valueOf(Blackhole blackhole) {
+        for (int i = 0; i < starts.length; i++) {
+            blackhole.consume(Element.valueOf(symbole.substring(starts[i], ends[i])));
+        }
+    }
+
+    @Benchmark
+    public void bySymbolChars(Blackhole blackhole) {
+        for (int i = 0; i < starts.length; i++) {
+            char second = ends[i] - starts[i] > 1 ? symbole.charAt(starts[i] + 1) : '\0';
+            blackhole.consume(Element.bySymbol(symbole.charAt(starts[i]), second));
+        }
+    }
+
+    @Benchmark
+    public void bySymbolRange(Blackhole blackhole) {
+        for (int i = 0; i < starts.length; i++) {
+            blackhole.consume(Element.bySymbol(symbole, starts[i], ends[i]));
+        }
+    }
+
+    @Benchmark
+    public Object valueOfUnbekannt() {
+        try {
+            return Element.valueOf("Xx");
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object bySymbolUnbekannt() {
+        return Element.bySymbol('X', 'x');
+    }
+}
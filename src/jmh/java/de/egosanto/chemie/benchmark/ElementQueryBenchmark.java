@@ -0,0 +1,80 @@
+package de.egosanto.chemie.benchmark;
+
+import de.egosanto.chemie.utils.AgregatZustand;
+import de.egosanto.chemie.utils.Element;
+import de.egosanto.chemie.utils.ElementQuery;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ElementQueryBenchmark description:
+ * Vergleicht "alle radioaktiven Feststoffe mit Atomgewicht zwischen 200 und 260" als
+ * linearen Durchlauf über {@link Element#values()} mit {@link ElementQuery}, einmal nur
+ * die Anzahl und einmal mit Ergebnisliste.
+ * Date: 18.10.2026
+ * Project Name: chemie
+ *
+ * @author Toni Zeidler
+ * @see ElementQuery
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ElementQueryBenchmark {
+
+    public double von = 200;
+    public double bis = 260;
+
+    @Benchmark
+    public int linearAnzahl() {
+        int n = 0;
+        for (Element e : Element.values()) {
+            if (e.istRadioaktiv() && e.aggregatZustand() == AgregatZustand.FESTSTOFF
+                    && e.atomGewicht() >= von && e.atomGewicht() <= bis) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    @Benchmark
+    public int queryAnzahl() {
+        return ElementQuery.where(ElementQuery.radioaktiv())
+                .and(ElementQuery.zustand(AgregatZustand.FESTSTOFF))
+                .and(ElementQuery.atomGewicht(von, bis))
+                .count();
+    }
+
+    @Benchmark
+    public List<Element> linearListe() {
+        List<Element> result = new ArrayList<>();
+        for (Element e : Element.values()) {
+            if (e.istRadioaktiv() && e.aggregatZustand() == AgregatZustand.FESTSTOFF
+                    && e.atomGewicht() >= von && e.atomGewicht() <= bis) {
+                result.add(e);
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<Element> queryListe() {
+        return ElementQuery.where(ElementQuery.radioaktiv())
+                .and(ElementQuery.zustand(AgregatZustand.FESTSTOFF))
+                .and(ElementQuery.atomGewicht(von, bis))
+                .toList();
+    }
+}
@@ -0,0 +1,147 @@
+package de.egosanto.chemie.benchmark;
+
+import de.egosanto.chemie.ExactMass;
+import de.egosanto.chemie.Formula;
+import de.egosanto.chemie.utils.Element;
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ExactMassBenchmark description:
+ * Vergleicht die Summation von Molekulargewichten mit {@code double}, exakten
+ * Mikro-g/mol als {@code long} ({@link ExactMass}), {@link BigDecimal} und
+ * Neumaier-Summation, jeweils für eine Formel (Zerlegung inklusive) und für die
+ * Gesamtmasse eines Stapels bereits zerlegter Formeln.
+ * Date: 18.10.2026
+ * Project Name: chemie
+ *
+ * @author Toni Zeidler
+ * @see ExactMass
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExactMassBenchmark {
+
+    private static final BigDecimal[] GEWICHTE = new BigDecimal[Element.alle().size() + 1];
+
+    static {
+        for (int i = 0; i < GEWICHTE.length; i++) {
+            GEWICHTE[i] = BigDecimal.valueOf(Element.atomGewicht(i));
+        }
+    }
+
+    @Param({"C6H12O6", "C2000H3000N500O700S20"})
+    public String formula;
+
+    private Formula parsed;
+    private Formula[] batch;
+    private double[] weights;
+
+    @Setup
+    public void setup() {
+        parsed = Formula.parse(formula);
+        Random random = new Random(42);
+        batch = new Formula[10_000];
+        weights = new double[batch.length];
+        for (int i = 0; i < batch.length; i++) {
+            batch[i] = Formula.parse("C" + (random.nextInt(500) + 1) + "H" + (random.nextInt(900) + 1)
+                    + "N" + (random.nextInt(90) + 1) + "O" + (random.nextInt(90) + 1));
+            weights[i] = batch[i].molecularWeight();
+        }
+    }
+
+    @Benchmark
+    public double parseDouble() {
+        return Formula.parse(formula).molecularWeight();
+    }
+
+    @Benchmark
+    public long parseLong() {
+        return ExactMass.micros(formula);
+    }
+
+    @Benchmark
+    public BigDecimal parseBigDecimal() {
+        return bigDecimal(Formula.parse(formula));
+    }
+
+    @Benchmark
+    public double formulaDouble() {
+        return doubleWeight(parsed);
+    }
+
+    @Benchmark
+    public long formulaLong() {
+        return ExactMass.micros(parsed);
+    }
+
+    @Benchmark
+    public BigDecimal formulaBigDecimal() {
+        return bigDecimal(parsed);
+    }
+
+    @Benchmark
+    public double batchDouble() {
+        double sum = 0;
+        for (Formula f : batch) {
+            sum += doubleWeight(f);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long batchLong() {
+        long sum = 0;
+        for (Formula f : batch) {
+            sum += ExactMass.micros(f);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public BigDecimal batchBigDecimal() {
+        BigDecimal sum = BigDecimal.ZERO;
+        for (Formula f : batch) {
+            sum = sum.add(bigDecimal(f));
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double batchNeumaier() {
+        return ExactMass.neumaierSum(weights, 0, weights.length);
+    }
+
+    /** Wie {@link Formula#molecularWeight()}, aber neu berechnet statt zwischengespeichert. */
+    private static double doubleWeight(Formula f) {
+        double sum = 0;
+        for (int i = 0; i < f.elementCount(); i++) {
+            sum += Element.atomGewicht(f.elementAt(i).ordnungsZahl()) * f.countAt(i);
+        }
+        return sum;
+    }
+
+    private static BigDecimal bigDecimal(Formula f) {
+        BigDecimal sum = BigDecimal.ZERO;
+        for (int i = 0; i < f.elementCount(); i++) {
+            sum = sum.add(GEWICHTE[f.elementAt(i).ordnungsZahl()].multiply(BigDecimal.valueOf(f.countAt(i))));
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,65 @@
+package de.egosanto.chemie.benchmark;
+
+import de.egosanto.chemie.FormulaSearch;
+import de.egosanto.chemie.utils.Element;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * FormulaSearchBenchmark description:
+ * Misst die Rückwärtssuche von einer Masse zu CHNOPS-Formeln, vollständig (alle Treffer)
+ * und mit vorzeitigem Ende nach dem ersten Treffer, jeweils sequentiell und parallel.
+ * Date: 18.10.2026
+ * Project Name: chemie
+ *
+ * @author Toni Zeidler
+ * @see FormulaSearch
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormulaSearchBenchmark {
+
+    @Param({"180.156", "500.0", "1000.0"})
+    public double mass;
+
+    @Param({"5"})
+    public double ppm;
+
+    private FormulaSearch search() {
+        return FormulaSearch.withPpm(mass, ppm)
+                .allow(Element.C, 0, 80)
+                .allow(Element.H, 0, 160)
+                .allow(Element.N, 0, 20)
+                .allow(Element.O, 0, 30)
+                .allow(Element.P, 0, 4)
+                .allow(Element.S, 0, 4);
+    }
+
+    @Benchmark
+    public long alleSequentiell() {
+        return search().stream().count();
+    }
+
+    @Benchmark
+    public long alleParallel() {
+        return search().parallelStream().count();
+    }
+
+    @Benchmark
+    public Object ersterTreffer() {
+        return search().stream().findFirst().orElse(null);
+    }
+}
@@ -0,0 +1,106 @@
+package de.egosanto.chemie.benchmark;
+
+import de.egosanto.chemie.FormulaServer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * FormulaServerLoadTest description:
+ * Lasttest für {@link FormulaServer}: {@code clients} Threads senden je {@code requests}
+ * Anfragen nacheinander an {@code /weight}, abwechselnd aus einer kleinen Menge Formeln,
+ * damit auch das Zusammenfassen gleicher Formeln greift. Ausgegeben werden Durchsatz,
+ * p50, p90, p99 und Maximum der Latenz sowie die Anzahl abgewiesener Anfragen.
+ * <p>
+ * Ohne URL wird ein Server auf der Loopback-Adresse gestartet:
+ * <pre>
+ * mvn -Pjmh test-compile
+ * java -cp target/classes:target/test-classes de.egosanto.chemie.benchmark.FormulaServerLoadTest [url] [clients] [requests]
+ * </pre>
+ * </p>
+ * Date: 18.10.2026
+ * Project Name: chemie
+ *
+ * @author Toni Zeidler
+ * @see FormulaServer
+ */
+public final class FormulaServerLoadTest {
+
+    private static final String[] FORMELN = {"H2O", "C6H12O6", "CuSO4·5H2O", "[Fe(CN)6]^4-", "C254H377N65O75S6"};
+
+    private FormulaServerLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        FormulaServer server = null;
+        String url;
+        if (args.length > 0 && args[0].startsWith("http")) {
+            url = args[0];
+            args = Arrays.copyOfRange(args, 1, args.length);
+        } else {
+            // Wie im Servermodus von MolecularWeightCalculator, sonst misst der Test Nagle-Wartezeiten.
+            if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+                System.setProperty("sun.net.httpserver.nodelay", "true");
+            }
+            server = new FormulaServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+                    FormulaServer.DEFAULT_MAX_CONCURRENT, FormulaServer.DEFAULT_MAX_BATCH).start();
+            url = "http://127.0.0.1:" + server.port();
+        }
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+        int requests = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+
+        HttpClient client = HttpClient.newHttpClient();
+        URI uri = URI.create(url + "/weight");
+        long[] latencies = new long[clients * requests];
+        AtomicLong fehler = new AtomicLong();
+        CountDownLatch fertig = new CountDownLatch(clients);
+        long start = System.nanoTime();
+        for (int c = 0; c < clients; c++) {
+            int offset = c * requests;
+            Thread thread = new Thread(() -> {
+                try {
+                    for (int i = 0; i < requests; i++) {
+                        HttpRequest request = HttpRequest.newBuilder(uri)
+                                .POST(HttpRequest.BodyPublishers.ofString(FORMELN[(offset + i) % FORMELN.length]))
+                                .build();
+                        long t = System.nanoTime();
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        latencies[offset + i] = System.nanoTime() - t;
+                        if (response.statusCode() != 200) {
+                            fehler.incrementAndGet();
+                        }
+                    }
+                } catch (Exception e) {
+                    fehler.incrementAndGet();
+                    e.printStackTrace();
+                } finally {
+                    fertig.countDown();
+                }
+            });
+            thread.start();
+        }
+        fertig.await();
+        double sekunden = (System.nanoTime() - start) / 1e9;
+
+        Arrays.sort(latencies);
+        System.out.printf("%d Anfragen, %d Clients, %.0f Anfragen/s, %d nicht 200%n",
+                latencies.length, clients, latencies.length / sekunden, fehler.get());
+        System.out.printf("p50 %.3f ms, p90 %.3f ms, p99 %.3f ms, max %.3f ms%n",
+                perzentil(latencies, 0.50), perzentil(latencies, 0.90), perzentil(latencies, 0.99),
+                latencies[latencies.length - 1] / 1e6);
+        if (server != null) {
+            System.out.printf("abgewiesen %d, zusammengefasst %d%n", server.rejectedCount(), server.coalescedCount());
+            server.close();
+        }
+    }
+
+    private static double perzentil(long[] sorted, double p) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)] / 1e6;
+    }
+}
@@ -0,0 +1,62 @@
+package de.egosanto.chemie.benchmark;
+
+import de.egosanto.chemie.Formula;
+import de.egosanto.chemie.IsotopePattern;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * IsotopePatternBenchmark description:
+ * Misst die Isotopenverteilung für kleine Moleküle bis zu Proteinen mit über 10000
+ * Kohlenstoffatomen, einzeln und als Stapel von 10000 Formeln.
+ * Date: 18.10.2026
+ * Project Name: chemie
+ *
+ * @author Toni Zeidler
+ * @see IsotopePattern
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IsotopePatternBenchmark {
+
+    @Param({"C6H12O6", "C254H377N65O75S6", "C1000H2000", "C10000H20000N3000O3000S100"})
+    public String formula;
+
+    private Formula parsed;
+    private List<Formula> stapel;
+
+    @Setup
+    public void setup() {
+        parsed = Formula.parse(formula);
+        stapel = new ArrayList<>();
+        for (int n = 1; n <= 10_000; n++) {
+            stapel.add(Formula.parse("C" + (n % 200 + 1) + "H" + (n % 400 + 2) + "N" + n % 7 + "O" + n % 11 + "S"));
+        }
+    }
+
+    @Benchmark
+    public IsotopePattern einzeln() {
+        return IsotopePattern.of(parsed);
+    }
+
+    @Benchmark
+    public IsotopePattern[] stapel() {
+        return IsotopePattern.ofAll(stapel, IsotopePattern.DEFAULT_MIN_RELATIVE_INTENSITY);
+    }
+}
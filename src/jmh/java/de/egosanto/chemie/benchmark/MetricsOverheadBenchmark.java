@@ -0,0 +1,59 @@
+package de.egosanto.chemie.benchmark;
+
+import de.egosanto.chemie.FormulaMetrics;
+import de.egosanto.chemie.MolecularWeightCalculator;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * MetricsOverheadBenchmark description:
+ * Misst {@link MolecularWeightCalculator#calculateMolecularWeight(CharSequence)} mit aus-
+ * und eingeschalteten {@link FormulaMetrics}. Ausgeschaltet muss das Ergebnis innerhalb
+ * der Messgenauigkeit dem Stand ohne Messung entsprechen; eingeschaltet kommen zwei
+ * Aufrufe von {@code System.nanoTime()} und drei atomare Inkremente hinzu.
+ * Date: 18.10.2026
+ * Project Name: chemie
+ *
+ * @author Toni Zeidler
+ * @see FormulaMetrics
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsOverheadBenchmark {
+
+    @Param({"false", "true"})
+    public boolean enabled;
+
+    @Param({"H2O", "C6H12O6", "K4[Fe(CN)6]·3H2O"})
+    public String formula;
+
+    @Setup
+    public void setup() {
+        FormulaMetrics.setEnabled(enabled);
+    }
+
+    @TearDown
+    public void tearDown() {
+        FormulaMetrics.setEnabled(false);
+    }
+
+    @Benchmark
+    public double calculateMolecularWeight() {
+        return MolecularWeightCalculator.calculateMolecularWeight(formula);
+    }
+}
@@ -0,0 +1,91 @@
+package de.egosanto.chemie.benchmark;
+
+import de.egosanto.chemie.Formula;
+import de.egosanto.chemie.MolecularWeightCalculator;
+import de.egosanto.chemie.utils.Element;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * MolecularWeightBenchmark description:
+ * Misst {@link MolecularWeightCalculator#calculateMolecularWeight(CharSequence)} und
+ * {@link Formula#parse(CharSequence)} für kurze, lange und pathologische Formeln. Als
+ * Vergleich dient die frühere Regex-Implementierung ({@link #regex()}), die nur flache
+ * Formeln versteht und deshalb nur für die Parameter ohne Klammern sinnvoll ist.
+ * Date: 18.10.2026
+ * Project Name: chemie
+ *
+ * @author Toni Zeidler
+ * @see MolecularWeightCalculator
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MolecularWeightBenchmark {
+
+    @Param({"kurz", "lang", "verschachtelt", "grosseZahlen"})
+    public String art;
+
+    private String formula;
+
+    @Setup
+    public void setUp() {
+        switch (art) {
+            case "kurz":
+                formula = "H2O";
+                break;
+            case "lang":
+                // Chlorophyll a, mehrfach hintereinander: viele Token ohne Klammern.
+                formula = "C55H72MgN4O5".repeat(20);
+                break;
+            case "verschachtelt":
+                // 32 Klammerebenen: jede Ebene schaut erneut bis zu ihrer schließenden Klammer voraus.
+                formula = "(".repeat(32) + "CH2" + ")1".repeat(32);
+                break;
+            case "grosseZahlen":
+                formula = "C1000000H2000002O1000001";
+                break;
+            default:
+                throw new IllegalArgumentException(art);
+        }
+    }
+
+    @Benchmark
+    public double calculateMolecularWeight() {
+        return MolecularWeightCalculator.calculateMolecularWeight(formula);
+    }
+
+    @Benchmark
+    public Formula formulaParse() {
+        return Formula.parse(formula);
+    }
+
+    /** Die ursprüngliche Implementierung mit regulärem Ausdruck und {@code Element.valueOf}. */
+    @Benchmark
+    public double regex() {
+        double totalWeight = 0;
+        Pattern pattern = Pattern.compile("([A-Z][a-z]*)(\\d*)");
+        Matcher matcher = pattern.matcher(formula);
+        while (matcher.find()) {
+            String number = matcher.group(2);
+            int count = number.isEmpty() ? 1 : Integer.parseInt(number);
+            totalWeight += Element.valueOf(matcher.group(1)).atomGewicht() * count;
+        }
+        return totalWeight;
+    }
+}
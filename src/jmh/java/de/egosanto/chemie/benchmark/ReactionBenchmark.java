@@ -0,0 +1,96 @@
+package de.egosanto.chemie.benchmark;
+
+import de.egosanto.chemie.Formula;
+import de.egosanto.chemie.Reaction;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ReactionBenchmark description:
+ * Misst das Ausgleichen einzelner Reaktionsgleichungen (Zerlegung inklusive), den
+ * Nullraum eines Reaktionsnetzes mit {@code species} Spezies aus Alkanen, Alkenen,
+ * Alkoholen und Verbrennungsprodukten sowie einen Stapel von 10000 Gleichungen
+ * sequentiell und parallel.
+ * Date: 18.10.2026
+ * Project Name: chemie
+ *
+ * @author Toni Zeidler
+ * @see Reaction
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReactionBenchmark {
+
+    @Param({"100", "500"})
+    public int species;
+
+    private Reaction network;
+    private List<String> batch;
+    private Reaction[] results;
+
+    @Setup
+    public void setup() {
+        List<Formula> reactants = new ArrayList<>();
+        for (int n = 1; reactants.size() < species - 3; n++) {
+            reactants.add(Formula.parse("C" + n + "H" + (2 * n + 2)));
+            reactants.add(Formula.parse("C" + n + "H" + (2 * n)));
+            reactants.add(Formula.parse("C" + n + "H" + (2 * n + 2) + "O"));
+        }
+        reactants.add(Formula.parse("O2"));
+        network = Reaction.of(reactants, List.of(Formula.parse("CO2"), Formula.parse("H2O")));
+
+        batch = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            int n = i % 100 + 1;
+            batch.add(i % 2 == 0 ? "C" + n + "H" + (2 * n + 2) + " + O2 -> CO2 + H2O"
+                    : "KMnO4 + HCl -> KCl + MnCl2 + H2O + Cl2");
+        }
+        results = new Reaction[batch.size()];
+    }
+
+    @Benchmark
+    public Reaction balancePropan() {
+        return Reaction.balance("C3H8 + O2 -> CO2 + H2O");
+    }
+
+    @Benchmark
+    public Reaction balancePermanganat() {
+        return Reaction.balance("KMnO4 + HCl -> KCl + MnCl2 + H2O + Cl2");
+    }
+
+    @Benchmark
+    public long[][] networkNullSpace() {
+        return network.nullSpace();
+    }
+
+    @Benchmark
+    public Reaction[] batchSequential() {
+        for (int i = 0; i < results.length; i++) {
+            results[i] = Reaction.balance(batch.get(i));
+        }
+        return results;
+    }
+
+    @Benchmark
+    public Reaction[] batchParallel() {
+        Reaction.balanceAll(batch, results, ForkJoinPool.commonPool());
+        return results;
+    }
+}
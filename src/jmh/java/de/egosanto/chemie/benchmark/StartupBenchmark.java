@@ -0,0 +1,82 @@
+package de.egosanto.chemie.benchmark;
+
+import de.egosanto.chemie.MolecularWeightCalculator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * StartupBenchmark description:
+ * Misst die Zeit bis zum ersten Ergebnis.
+ * <ul>
+ *     <li>{@link #ersterAufruf()}: der erste Aufruf von {@code calculateMolecularWeight} in
+ *     einer frischen JVM, also Laden und Initialisieren der Klassen. Jeder Messwert stammt
+ *     aus einem eigenen Fork.</li>
+ *     <li>{@link #mainProzess()}: ein vollständiger Prozess
+ *     {@code java MolecularWeightCalculator}, der eine Formel von stdin liest, einschließlich
+ *     JVM-Start, gemittelt über alle Prozesse einer Iteration. Über
+ *     {@code -p jvmArgs=-XX:SharedArchiveFile=chemie.jsa} lässt sich der Effekt eines
+ *     AppCDS-Archivs messen.</li>
+ * </ul>
+ * Date: 18.10.2026
+ * Project Name: chemie
+ *
+ * @author Toni Zeidler
+ * @see MolecularWeightCalculator#main(String[])
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StartupBenchmark {
+
+    @Param({""})
+    public String jvmArgs;
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    @Fork(20)
+    public double ersterAufruf() {
+        return MolecularWeightCalculator.calculateMolecularWeight("C6H12O6");
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 1, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    @Fork(1)
+    public int mainProzess() throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (!jvmArgs.isBlank()) {
+            command.addAll(List.of(jvmArgs.trim().split("\\s+")));
+        }
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(MolecularWeightCalculator.class.getName());
+
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        try (OutputStream stdin = process.getOutputStream()) {
+            stdin.write("C6H12O6\n".getBytes(StandardCharsets.US_ASCII));
+        }
+        try (InputStream stdout = process.getInputStream()) {
+            stdout.readAllBytes();
+        }
+        return process.waitFor();
+    }
+}
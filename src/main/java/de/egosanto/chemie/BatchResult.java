@@ -0,0 +1,101 @@
+package de.egosanto.chemie;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * BatchResult description:
+ * Ergebnis einer Stapelberechnung mit
+ * {@link MolecularWeightCalculator#calculateMolecularWeights(List, double[])}. Die Gewichte
+ * selbst stehen im übergebenen {@code double[]}; dieses Objekt beschreibt nur die
+ * Formeln, die nicht berechnet werden konnten. Deren Gewicht ist {@link Double#NaN}.
+ * Date: 18.10.2026
+ * Project Name: chemie
+ *
+ * @author Toni Zeidler
+ * @see MolecularWeightCalculator
+ */
+public final class BatchResult {
+
+    /**
+     * Fehler bei einer einzelnen Formel des Stapels.
+     */
+    public static final class Failure {
+        private final int index;
+        private final CharSequence formula;
+        private final RuntimeException exception;
+
+        Failure(int index, CharSequence formula, RuntimeException exception) {
+            this.index = index;
+            this.formula = formula;
+            this.exception = exception;
+        }
+
+        /**
+         * @return Der Index der Formel im Stapel.
+         */
+        public int index() {
+            return index;
+        }
+
+        /**
+         * @return Die fehlerhafte Formel, {@code null} wenn der Eintrag {@code null} war.
+         */
+        public CharSequence formula() {
+            return formula;
+        }
+
+        /**
+         * @return Die Ausnahme, meist eine {@link FormulaParseException}.
+         */
+        public RuntimeException exception() {
+            return exception;
+        }
+
+        @Override
+        public String toString() {
+            return "[" + index + "] " + exception.getMessage();
+        }
+    }
+
+    private final int size;
+    private final List<Failure> failures;
+
+    BatchResult(int size, List<Failure> failures) {
+        this.size = size;
+        this.failures = Collections.unmodifiableList(failures);
+    }
+
+    /**
+     * @return Die Anzahl der Formeln im Stapel.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return {@code true}, wenn alle Formeln berechnet werden konnten.
+     */
+    public boolean isSuccess() {
+        return failures.isEmpty();
+    }
+
+    /**
+     * @return Die Anzahl der fehlerhaften Formeln.
+     */
+    public int failureCount() {
+        return failures.size();
+    }
+
+    /**
+     * @return Die Fehler, aufsteigend nach Index sortiert.
+     */
+    public List<Failure> failures() {
+        return failures;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchResult[size=" + size + ", failures=" + failures.size() + "]";
+    }
+}
@@ -0,0 +1,194 @@
+package de.egosanto.chemie;
+
+import de.egosanto.chemie.utils.Element;
+import java.util.Arrays;
+
+/**
+ * CompositionMatrix description:
+ * Stapelberechnung von Molekulargewichten und Massenanteilen direkt aus Matrizen von
+ * Atomanzahlen, z.B. aus Datenbankzeilen, ohne den Umweg über Formeltexte. Zeilen sind
+ * Verbindungen, Spalten Elemente nach {@link Element#ordinal()} (Ordnungszahl - 1).
+ * <p>
+ * Zwei Formen werden unterstützt:
+ * </p>
+ * <ul>
+ *     <li>spaltenweise dicht: {@code columns[e][r]} ist die Anzahl von Element {@code e} in
+ *     Zeile {@code r}; Elemente, die nirgends vorkommen, dürfen {@code null} sein. Die
+ *     Massen werden blockweise als Folge von {@code masse[r] += anzahl[r] * gewicht}
+ *     über zusammenhängende Arrays berechnet. Diese Schleifen übersetzt der JIT in
+ *     SIMD-Befehle, und der Block des Ergebnisses bleibt im L1-Cache.</li>
+ *     <li>CSR (komprimierte Zeilen): die Einträge der Zeile {@code r} stehen in
+ *     {@code rowOffsets[r]} bis {@code rowOffsets[r + 1] - 1} von {@code columnIndices} und
+ *     {@code values}.</li>
+ * </ul>
+ * <p>
+ * Die Summation läuft in beiden Formen (bei CSR mit aufsteigenden Spalten) in derselben
+ * Reihenfolge wie in {@link Formula}; die Ergebnisse sind also bitgleich mit
+ * {@link Formula#molecularWeight()}.
+ * </p>
+ * Date: 18.10.2026
+ * Project Name: chemie
+ *
+ * @author Toni Zeidler
+ * @see Formula#countVector()
+ */
+public final class CompositionMatrix {
+
+    /** Anzahl der Spalten einer vollständigen Matrix, eine je Element. */
+    public static final int COLUMNS = Element.alle().size();
+
+    /** Zeilen je Block; das Ergebnis eines Blocks (16 KiB) bleibt im L1-Cache. */
+    static final int BLOCK = 2048;
+
+    /** Atomgewichte nach {@link Element#ordinal()}. */
+    private static final double[] GEWICHTE = Arrays.copyOfRange(Element.atomGewichte(), 1, COLUMNS + 1);
+
+    private CompositionMatrix() {
+    }
+
+    /**
+     * Berechnet die Molekulargewichte aus einer spaltenweise dichten Matrix.
+     *
+     * @param columns {@code columns[e]} enthält die Anzahlen von Element {@code e} (nach
+     *                {@link Element#ordinal()}) für alle Zeilen oder ist {@code null}.
+     *                Höchstens {@link #COLUMNS} Spalten.
+     * @param rows    Die Anzahl der Zeilen.
+     * @param masses  Das Ergebnis-Array, mindestens {@code rows} lang.
+     * @throws IllegalArgumentException Wenn zu viele Spalten übergeben werden oder ein Array zu kurz ist.
+     */
+    public static void masses(int[][] columns, int rows, double[] masses) {
+        checkColumns(columns, rows);
+        checkLength(masses.length, rows);
+        for (int from = 0; from < rows; from += BLOCK) {
+            int to = Math.min(rows, from + BLOCK);
+            Arrays.fill(masses, from, to, 0);
+            for (int e = 0; e < columns.length; e++) {
+                int[] anzahl = columns[e];
+                if (anzahl == null) {
+                    continue;
+                }
+                double gewicht = GEWICHTE[e];
+                for (int r = from; r < to; r++) {
+                    masses[r] += anzahl[r] * gewicht;
+                }
+            }
+        }
+    }
+
+    /**
+     * Berechnet die Massenanteile in Prozent aus einer spaltenweise dichten Matrix.
+     *
+     * @param columns Siehe {@link #masses(int[][], int, double[])}.
+     * @param rows    Die Anzahl der Zeilen.
+     * @param masses  Die Molekulargewichte aus {@link #masses(int[][], int, double[])}.
+     * @return {@code result[e][r]} ist der Massenanteil von Element {@code e} in Zeile
+     * {@code r} in Prozent; {@code null} wo {@code columns[e]} {@code null} ist. Zeilen
+     * mit Masse 0 haben überall den Anteil 0.
+     * @throws IllegalArgumentException Wenn zu viele Spalten übergeben werden oder ein Array zu kurz ist.
+     */
+    public static double[][] massPercents(int[][] columns, int rows, double[] masses) {
+        checkColumns(columns, rows);
+        checkLength(masses.length, rows);
+        double[] kehrwert = kehrwerte(masses, rows);
+        double[][] percents = new double[columns.length][];
+        for (int e = 0; e < columns.length; e++) {
+            int[] anzahl = columns[e];
+            if (anzahl == null) {
+                continue;
+            }
+            double gewicht = GEWICHTE[e];
+            double[] anteil = new double[rows];
+            for (int r = 0; r < rows; r++) {
+                anteil[r] = anzahl[r] * gewicht * kehrwert[r];
+            }
+            percents[e] = anteil;
+        }
+        return percents;
+    }
+
+    /**
+     * Berechnet die Molekulargewichte aus einer CSR-Matrix.
+     *
+     * @param rowOffsets    Beginn jeder Zeile in {@code columnIndices} und {@code values},
+     *                      plus das Ende der letzten Zeile; die Anzahl der Zeilen ist
+     *                      {@code rowOffsets.length - 1}.
+     * @param columnIndices Die Spalten der Einträge nach {@link Element#ordinal()}.
+     * @param values        Die Atomanzahlen.
+     * @param masses        Das Ergebnis-Array, mindestens {@code rowOffsets.length - 1} lang.
+     * @throws IllegalArgumentException       Wenn ein Array zu kurz ist.
+     * @throws ArrayIndexOutOfBoundsException Wenn ein Spaltenindex kein Element bezeichnet.
+     */
+    public static void masses(int[] rowOffsets, int[] columnIndices, int[] values, double[] masses) {
+        int rows = checkCsr(rowOffsets, columnIndices, values);
+        checkLength(masses.length, rows);
+        for (int r = 0; r < rows; r++) {
+            double sum = 0;
+            for (int i = rowOffsets[r], ende = rowOffsets[r + 1]; i < ende; i++) {
+                sum += GEWICHTE[columnIndices[i]] * values[i];
+            }
+            masses[r] = sum;
+        }
+    }
+
+    /**
+     * Berechnet die Massenanteile in Prozent aus einer CSR-Matrix.
+     *
+     * @param rowOffsets    Siehe {@link #masses(int[], int[], int[], double[])}.
+     * @param columnIndices Die Spalten der Einträge nach {@link Element#ordinal()}.
+     * @param values        Die Atomanzahlen.
+     * @param masses        Die Molekulargewichte aus {@link #masses(int[], int[], int[], double[])}.
+     * @param percents      Das Ergebnis-Array; {@code percents[i]} erhält den Massenanteil
+     *                      des Eintrags {@code values[i]} in Prozent (0 bei Masse 0).
+     * @throws IllegalArgumentException       Wenn ein Array zu kurz ist.
+     * @throws ArrayIndexOutOfBoundsException Wenn ein Spaltenindex kein Element bezeichnet.
+     */
+    public static void massPercents(int[] rowOffsets, int[] columnIndices, int[] values, double[] masses,
+                                    double[] percents) {
+        int rows = checkCsr(rowOffsets, columnIndices, values);
+        checkLength(masses.length, rows);
+        checkLength(percents.length, rowOffsets[rows]);
+        for (int r = 0; r < rows; r++) {
+            double kehrwert = masses[r] == 0 ? 0 : 100 / masses[r];
+            for (int i = rowOffsets[r], ende = rowOffsets[r + 1]; i < ende; i++) {
+                percents[i] = GEWICHTE[columnIndices[i]] * values[i] * kehrwert;
+            }
+        }
+    }
+
+    private static double[] kehrwerte(double[] masses, int rows) {
+        double[] kehrwert = new double[rows];
+        for (int r = 0; r < rows; r++) {
+            kehrwert[r] = masses[r] == 0 ? 0 : 100 / masses[r];
+        }
+        return kehrwert;
+    }
+
+    private static void checkColumns(int[][] columns, int rows) {
+        if (columns.length > COLUMNS) {
+            throw new IllegalArgumentException("Zu viele Spalten: " + columns.length + " > " + COLUMNS);
+        }
+        for (int[] anzahl : columns) {
+            if (anzahl != null) {
+                checkLength(anzahl.length, rows);
+            }
+        }
+    }
+
+    /** @return Die Anzahl der Zeilen. */
+    private static int checkCsr(int[] rowOffsets, int[] columnIndices, int[] values) {
+        if (rowOffsets.length == 0) {
+            throw new IllegalArgumentException("rowOffsets muss mindestens einen Eintrag haben");
+        }
+        int rows = rowOffsets.length - 1;
+        int eintraege = rowOffsets[rows];
+        checkLength(columnIndices.length, eintraege);
+        checkLength(values.length, eintraege);
+        return rows;
+    }
+
+    private static void checkLength(int length, int required) {
+        if (length < required) {
+            throw new IllegalArgumentException("Array zu kurz: " + length + " < " + required);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package de.egosanto.chemie;
+
+import de.egosanto.chemie.utils.Element;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * ExactMass description:
+ * Exakte, von der Reihenfolge unabhängige Massenberechnung. Die Atomgewichte werden als
+ * ganze Mikro-g/mol ({@link Element#atomGewichtMikro(int)}) summiert; da die Tabellenwerte
+ * höchstens vier Nachkommastellen haben, ist das Ergebnis exakt. Ganzzahlige Addition ist
+ * assoziativ, daher liefern "Ca(OH)2" und "CaO2H2" ebenso wie sequentielle und parallele
+ * Stapelsummen bitgleiche Ergebnisse, unabhängig von der Anzahl der Threads.
+ * <p>
+ * Für Summen über bereits berechnete {@code double}-Gewichte gibt es zusätzlich
+ * {@link #neumaierSum(double[], int, int)}, eine kompensierte Summation, deren Fehler
+ * nicht mit der Anzahl der Summanden wächst.
+ * </p>
+ * Date: 18.10.2026
+ * Project Name: chemie
+ *
+ * @author Toni Zeidler
+ * @see MolecularWeightCalculator#calculateMolecularWeight(CharSequence)
+ */
+public final class ExactMass {
+
+    /** Mikro-g/mol pro g/mol. */
+    public static final long MICROS_PER_UNIT = 1_000_000;
+
+    private ExactMass() {
+    }
+
+    /**
+     * Berechnet das Molekulargewicht exakt.
+     *
+     * @param formula Die chemische Formel.
+     * @return Das Molekulargewicht in Mikro-g/mol.
+     * @throws FormulaParseException Wenn die Formel fehlerhaft ist oder die Masse nicht in ein {@code long} passt.
+     */
+    public static long micros(CharSequence formula) {
+        return FormulaParser.exactMass(formula);
+    }
+
+    /**
+     * Berechnet das Molekulargewicht einer zerlegten Formel exakt.
+     *
+     * @param formula Die Formel.
+     * @return Das Molekulargewicht in Mikro-g/mol.
+     * @throws ArithmeticException Wenn die Masse nicht in ein {@code long} passt.
+     */
+    public static long micros(Formula formula) {
+        long sum = 0;
+        for (int i = 0; i < formula.elementCount(); i++) {
+            long term = Element.atomGewichtMikro(formula.elementAt(i).ordnungsZahl()) * formula.countAt(i);
+            sum = Math.addExact(sum, term);
+        }
+        return sum;
+    }
+
+    /**
+     * @param micros Eine Masse in Mikro-g/mol.
+     * @return Die Masse in g/mol, auf das nächste {@code double} gerundet.
+     */
+    public static double toDouble(long micros) {
+        return micros / (double) MICROS_PER_UNIT;
+    }
+
+    /**
+     * @param micros Eine Masse in Mikro-g/mol.
+     * @return Die Masse in g/mol, ohne Rundung.
+     */
+    public static BigDecimal toBigDecimal(long micros) {
+        return BigDecimal.valueOf(micros, 6);
+    }
+
+    /**
+     * Summiert die Molekulargewichte aller Formeln exakt.
+     *
+     * @param formulas Die Formeln.
+     * @return Die Summe in Mikro-g/mol.
+     * @throws FormulaParseException Bei der ersten fehlerhaften Formel.
+     * @throws ArithmeticException   Wenn die Summe nicht in ein {@code long} passt.
+     */
+    public static long total(List<? extends CharSequence> formulas) {
+        long sum = 0;
+        for (CharSequence formula : formulas) {
+            sum = Math.addExact(sum, micros(formula));
+        }
+        return sum;
+    }
+
+    /**
+     * Summiert die Molekulargewichte aller Formeln exakt und parallel. Das Ergebnis ist
+     * bitgleich mit {@link #total(List)}, unabhängig von Pool und Aufteilung.
+     *
+     * @param formulas Die Formeln.
+     * @param pool     Der Pool, z.B. {@link ForkJoinPool#commonPool()}.
+     * @return Die Summe in Mikro-g/mol.
+     * @throws FormulaParseException Wenn eine Formel fehlerhaft ist; bei mehreren ist nicht
+     *                               festgelegt, welche gemeldet wird.
+     * @throws ArithmeticException   Wenn die Summe nicht in ein {@code long} passt.
+     */
+    public static long totalParallel(List<? extends CharSequence> formulas, ForkJoinPool pool) {
+        if (!(formulas instanceof RandomAccess)) {
+            formulas = new ArrayList<>(formulas);
+        }
+        return pool.invoke(new Summe(formulas, 0, formulas.size()));
+    }
+
+    /**
+     * Summiert {@code values[from..to)} mit der Neumaier-Variante der Kahan-Summation. Der
+     * Rundungsfehler bleibt unabhängig von der Anzahl der Summanden in der Größenordnung
+     * einer einzigen Rundung; anders als {@link #total(List)} ist das Ergebnis aber nicht in
+     * jedem Fall unabhängig von der Reihenfolge.
+     *
+     * @param values Die Werte.
+     * @param from   Der erste Index.
+     * @param to     Der Index hinter dem letzten Wert.
+     * @return Die Summe.
+     */
+    public static double neumaierSum(double[] values, int from, int to) {
+        double sum = 0;
+        double compensation = 0;
+        for (int i = from; i < to; i++) {
+            double v = values[i];
+            double t = sum + v;
+            if (Math.abs(sum) >= Math.abs(v)) {
+                compensation += (sum - t) + v;
+            } else {
+                compensation += (v - t) + sum;
+            }
+            sum = t;
+        }
+        return sum + compensation;
+    }
+
+    private static final class Summe extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<? extends CharSequence> formulas;
+        private final int from;
+        private final int to;
+
+        Summe(List<? extends CharSequence> formulas, int from, int to) {
+            this.formulas = formulas;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from <= MolecularWeightBatch.SCHWELLE) {
+                long sum = 0;
+                for (int i = from; i < to; i++) {
+                    sum = Math.addExact(sum, micros(formulas.get(i)));
+                }
+                return sum;
+            }
+            int mid = (from + to) >>> 1;
+            Summe left = new Summe(formulas, from, mid);
+            left.fork();
+            long right = new Summe(formulas, mid, to).compute();
+            return Math.addExact(left.join(), right);
+        }
+    }
+}
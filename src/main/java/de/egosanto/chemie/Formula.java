@@ -0,0 +1,294 @@
+package de.egosanto.chemie;
+
+import de.egosanto.chemie.utils.Element;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Formula description:
+ * Unveränderliche, einmal zerlegte chemische Formel. Eine Formel besteht aus einem
+ * Vektor der Atomanzahlen, indiziert über die Ordnungszahl, und der Ladung. Zusätzlich
+ * werden die Ordnungszahlen der enthaltenen Elemente aufsteigend gespeichert, damit
+ * Masse, Zusammensetzung und Gleichheit in O(Anzahl Elemente) ohne erneutes Parsen
+ * beantwortet werden können.
+ * <p>
+ * Zwei Formeln sind gleich, wenn sie dieselbe Zusammensetzung und Ladung haben,
+ * unabhängig von der Schreibweise ("Ca(OH)2" ist gleich "CaO2H2").
+ * </p>
+ * Date: 18.10.2026
+ * Project Name: chemie
+ *
+ * @author Toni Zeidler
+ * @see FormulaParser
+ */
+public final class Formula {
+
+    /** Länge des Anzahl-Vektors: Ordnungszahlen 1 bis 118, Index 0 bleibt leer. */
+    public static final int VECTOR_LENGTH = 119;
+
+    /** Ruhemasse eines Elektrons in u, für die exakte Masse geladener Formeln. */
+    public static final double ELECTRON_MASS = 5.48579909065e-4;
+
+    private final int[] anzahl;
+    private final int[] vorhanden;
+    private final int charge;
+    private final double molecularWeight;
+    private final int hash;
+
+    private Formula(int[] anzahl, int charge) {
+        this.anzahl = anzahl;
+        this.charge = charge;
+
+        int size = 0;
+        for (int z = 1; z < VECTOR_LENGTH; z++) {
+            if (anzahl[z] != 0) {
+                size++;
+            }
+        }
+        vorhanden = new int[size];
+        double weight = 0;
+        int hash = charge;
+        for (int z = 1, i = 0; z < VECTOR_LENGTH; z++) {
+            if (anzahl[z] != 0) {
+                vorhanden[i++] = z;
+                weight += Element.atomGewicht(z) * anzahl[z];
+                hash = 31 * (31 * hash + z) + anzahl[z];
+            }
+        }
+        this.molecularWeight = weight;
+        this.hash = hash;
+    }
+
+    /**
+     * Zerlegt eine chemische Formel. Unterstützt werden Klammergruppen, Hydrate und
+     * Ladungen, z.B. "Ca(OH)2", "[Fe(CN)6]^4-" oder "CuSO4·5H2O".
+     *
+     * @param formula Die chemische Formel.
+     * @return Die zerlegte Formel.
+     * @throws FormulaParseException Wenn die Formel fehlerhaft ist.
+     */
+    public static Formula parse(CharSequence formula) {
+        int[] anzahl = new int[VECTOR_LENGTH];
+        int charge = FormulaParser.composition(formula, anzahl);
+        return new Formula(anzahl, charge);
+    }
+
+    /**
+     * Erzeugt eine Formel aus einem Anzahl-Vektor.
+     *
+     * @param counts Atomanzahlen, indiziert über die Ordnungszahl (Länge {@link #VECTOR_LENGTH}).
+     *               Das Array wird kopiert.
+     * @param charge Die Ladung.
+     * @return Die Formel.
+     * @throws IllegalArgumentException Wenn der Vektor die falsche Länge oder negative Anzahlen hat.
+     */
+    public static Formula ofCounts(int[] counts, int charge) {
+        if (counts.length != VECTOR_LENGTH) {
+            throw new IllegalArgumentException("Anzahl-Vektor muss die Länge " + VECTOR_LENGTH + " haben");
+        }
+        int[] anzahl = counts.clone();
+        anzahl[0] = 0;
+        for (int n : anzahl) {
+            if (n < 0) {
+                throw new IllegalArgumentException("Negative Atomanzahl im Anzahl-Vektor");
+            }
+        }
+        return new Formula(anzahl, charge);
+    }
+
+    /**
+     * Gibt das Molekulargewicht zurück. Es wird beim Erzeugen der Formel einmal berechnet.
+     *
+     * @return Das Molekulargewicht in g/mol.
+     */
+    public double molecularWeight() {
+        return molecularWeight;
+    }
+
+    /**
+     * Gibt die monoisotopische Masse zurück: die Summe der Massen des jeweils häufigsten
+     * Isotops, bei Ionen abzüglich der Masse der fehlenden (bzw. zuzüglich der
+     * zusätzlichen) Elektronen.
+     *
+     * @return Die monoisotopische Masse in u.
+     * @see Element#monoisotopischeMasse()
+     * @see IsotopePattern
+     */
+    public double monoisotopicMass() {
+        double mass = -charge * ELECTRON_MASS;
+        for (int z : vorhanden) {
+            mass += Element.byOrdnungsZahl(z).monoisotopischeMasse() * anzahl[z];
+        }
+        return mass;
+    }
+
+    /**
+     * @return Die Ladung der Formel, z.B. -4 für "[Fe(CN)6]^4-".
+     */
+    public int charge() {
+        return charge;
+    }
+
+    /**
+     * @param element Das Element.
+     * @return Die Anzahl der Atome dieses Elements in der Formel.
+     */
+    public int count(Element element) {
+        return anzahl[element.ordnungsZahl()];
+    }
+
+    /**
+     * @return Die Anzahl der verschiedenen Elemente in der Formel.
+     */
+    public int elementCount() {
+        return vorhanden.length;
+    }
+
+    /**
+     * Gibt das {@code index}-te enthaltene Element zurück, aufsteigend nach Ordnungszahl.
+     * Zusammen mit {@link #countAt(int)} lässt sich die Zusammensetzung ohne Objekterzeugung durchlaufen.
+     *
+     * @param index Index zwischen 0 und {@link #elementCount()} - 1.
+     * @return Das Element.
+     */
+    public Element elementAt(int index) {
+        return Element.byOrdnungsZahl(vorhanden[index]);
+    }
+
+    /**
+     * @param index Index zwischen 0 und {@link #elementCount()} - 1.
+     * @return Die Anzahl der Atome des {@code index}-ten enthaltenen Elements.
+     */
+    public int countAt(int index) {
+        return anzahl[vorhanden[index]];
+    }
+
+    /**
+     * @return Die Gesamtzahl der Atome.
+     */
+    public long atomCount() {
+        long total = 0;
+        for (int z : vorhanden) {
+            total += anzahl[z];
+        }
+        return total;
+    }
+
+    /**
+     * Gibt den Massenanteil eines Elements an der Formel zurück.
+     *
+     * @param element Das Element.
+     * @return Der Massenanteil zwischen 0 und 1.
+     */
+    public double massFraction(Element element) {
+        return molecularWeight == 0 ? 0 : element.atomGewicht() * count(element) / molecularWeight;
+    }
+
+    /**
+     * @return Die Zusammensetzung als neue, nach Ordnungszahl sortierte Map.
+     */
+    public Map<Element, Integer> composition() {
+        Map<Element, Integer> composition = new EnumMap<>(Element.class);
+        for (int z : vorhanden) {
+            composition.put(Element.byOrdnungsZahl(z), anzahl[z]);
+        }
+        return composition;
+    }
+
+    /**
+     * @return Eine Kopie des Anzahl-Vektors, indiziert über die Ordnungszahl.
+     */
+    public int[] countVector() {
+        return anzahl.clone();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Formula)) {
+            return false;
+        }
+        Formula other = (Formula) o;
+        if (hash != other.hash || charge != other.charge || !Arrays.equals(vorhanden, other.vorhanden)) {
+            return false;
+        }
+        for (int z : vorhanden) {
+            if (anzahl[z] != other.anzahl[z]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    /**
+     * Gibt die Formel in Hill-Notation zurück (mit Kohlenstoff: C, H, danach alphabetisch;
+     * sonst alphabetisch). Eine Ladung wird mit '^' angehängt, z.B. "C6FeN6^4-". Die
+     * Ausgabe lässt sich mit {@link #parse(CharSequence)} wieder einlesen.
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (int z : anzahl[Element.C.ordnungsZahl()] != 0 ? Reihenfolge.HILL : Reihenfolge.ALPHABETISCH) {
+            int n = anzahl[z];
+            if (n != 0) {
+                text.append(Element.byOrdnungsZahl(z).symbol());
+                if (n != 1) {
+                    text.append(n);
+                }
+            }
+        }
+        if (charge != 0) {
+            text.append('^');
+            if (Math.abs(charge) != 1) {
+                text.append(Math.abs(charge));
+            }
+            text.append(charge > 0 ? '+' : '-');
+        }
+        return text.toString();
+    }
+
+    /**
+     * Sortierreihenfolgen für {@link #toString()}. Sie liegen in einer eigenen Klasse, damit
+     * sie erst beim ersten {@code toString()} berechnet werden und nicht den Start verzögern.
+     */
+    private static final class Reihenfolge {
+
+        /** Ordnungszahlen alphabetisch nach Symbol. */
+        static final int[] ALPHABETISCH = new int[Element.alle().size()];
+
+        /** Ordnungszahlen in Hill-Reihenfolge: C, H, danach alphabetisch nach Symbol. */
+        static final int[] HILL = new int[ALPHABETISCH.length];
+
+        static {
+            // Einfügesortierung, 118 Einträge, einmalig.
+            for (int i = 0; i < ALPHABETISCH.length; i++) {
+                int z = i + 1;
+                String symbol = Element.byOrdnungsZahl(z).symbol();
+                int j = i;
+                while (j > 0 && Element.byOrdnungsZahl(ALPHABETISCH[j - 1]).symbol().compareTo(symbol) > 0) {
+                    ALPHABETISCH[j] = ALPHABETISCH[j - 1];
+                    j--;
+                }
+                ALPHABETISCH[j] = z;
+            }
+            int c = Element.C.ordnungsZahl();
+            int h = Element.H.ordnungsZahl();
+            HILL[0] = c;
+            HILL[1] = h;
+            int n = 2;
+            for (int z : ALPHABETISCH) {
+                if (z != c && z != h) {
+                    HILL[n++] = z;
+                }
+            }
+        }
+    }
+}
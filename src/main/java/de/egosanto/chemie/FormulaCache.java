@@ -0,0 +1,223 @@
+package de.egosanto.chemie;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * FormulaCache description:
+ * Größenbeschränkter, threadsicherer Cache für zerlegte Formeln. Der {@link FormulaServer}
+ * nutzt ihn für alle Anfragen; eigene Anwendungen können ihn ebenso vor den
+ * {@link MolecularWeightCalculator} schalten. Schlüssel ist der Formeltext,
+ * Wert die zerlegte {@link Formula} samt vorberechnetem Gewicht.
+ * <p>
+ * Lesezugriffe sind sperrfrei: ein Treffer setzt nur das Referenz-Bit des Eintrags.
+ * Verdrängt wird nach dem CLOCK-Verfahren (Second Chance, eine Näherung an LRU): ein
+ * Zeiger läuft über einen Ring aller Einträge, löscht gesetzte Referenz-Bits und verdrängt
+ * den ersten Eintrag, der seit der letzten Runde nicht gelesen wurde. Nur das Einfügen
+ * nach einem Fehltreffer wird synchronisiert.
+ * </p>
+ * <p>
+ * Treffer, Fehltreffer, Verdrängungen und Ladezeit werden mit {@link LongAdder} gezählt,
+ * damit der Cache im Betrieb dimensioniert werden kann. Fehlerhafte Formeln werden nicht
+ * gespeichert.
+ * </p>
+ * Date: 18.10.2026
+ * Project Name: chemie
+ *
+ * @author Toni Zeidler
+ * @see Formula
+ */
+public final class FormulaCache {
+
+    private static final class Entry {
+        final String key;
+        final Formula formula;
+        volatile boolean referenced;
+
+        Entry(String key, Formula formula) {
+            this.key = key;
+            this.formula = formula;
+        }
+    }
+
+    private final int maximumSize;
+    private final ConcurrentHashMap<String, Entry> map;
+
+    // Ring für das CLOCK-Verfahren, geschützt durch die Sperre auf "ring".
+    private final Entry[] ring;
+    private int size;
+    private int hand;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder loadTimeNanos = new LongAdder();
+
+    /**
+     * @param maximumSize Die maximale Anzahl gespeicherter Formeln.
+     * @throws IllegalArgumentException Wenn {@code maximumSize} kleiner als 1 ist.
+     */
+    public FormulaCache(int maximumSize) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("maximumSize muss mindestens 1 sein: " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+        this.map = new ConcurrentHashMap<>(maximumSize * 4 / 3 + 1);
+        this.ring = new Entry[maximumSize];
+    }
+
+    /**
+     * Gibt die zerlegte Formel aus dem Cache zurück oder zerlegt und speichert sie.
+     *
+     * @param formula Die chemische Formel.
+     * @return Die zerlegte Formel.
+     * @throws FormulaParseException Wenn die Formel fehlerhaft ist.
+     */
+    public Formula get(CharSequence formula) {
+        String key = formula.toString();
+        Entry entry = map.get(key);
+        if (entry != null) {
+            hits.increment();
+            if (!entry.referenced) {
+                entry.referenced = true;
+            }
+            return entry.formula;
+        }
+        misses.increment();
+        return load(key);
+    }
+
+    /**
+     * Berechnet das Molekulargewicht über den Cache.
+     *
+     * @param formula Die chemische Formel.
+     * @return Das Molekulargewicht in g/mol.
+     * @throws FormulaParseException Wenn die Formel fehlerhaft ist.
+     * @see MolecularWeightCalculator#calculateMolecularWeight(CharSequence)
+     */
+    public double molecularWeight(CharSequence formula) {
+        return get(formula).molecularWeight();
+    }
+
+    private Formula load(String key) {
+        long start = System.nanoTime();
+        Formula formula;
+        try {
+            formula = Formula.parse(key);
+        } catch (RuntimeException e) {
+            loadFailures.increment();
+            throw e;
+        } finally {
+            loadTimeNanos.add(System.nanoTime() - start);
+        }
+
+        Entry entry = new Entry(key, formula);
+        synchronized (ring) {
+            Entry existing = map.get(key);
+            if (existing != null) {
+                // Ein anderer Thread hat dieselbe Formel gleichzeitig geladen.
+                return existing.formula;
+            }
+            if (size < maximumSize) {
+                ring[size++] = entry;
+            } else {
+                while (ring[hand].referenced) {
+                    ring[hand].referenced = false;
+                    hand = (hand + 1) % maximumSize;
+                }
+                map.remove(ring[hand].key);
+                evictions.increment();
+                ring[hand] = entry;
+                hand = (hand + 1) % maximumSize;
+            }
+            map.put(key, entry);
+        }
+        return formula;
+    }
+
+    /**
+     * Entfernt alle Einträge. Die Zähler bleiben erhalten.
+     */
+    public void clear() {
+        synchronized (ring) {
+            map.clear();
+            Arrays.fill(ring, null);
+            size = 0;
+            hand = 0;
+        }
+    }
+
+    /**
+     * @return Die aktuelle Anzahl gespeicherter Formeln.
+     */
+    public int size() {
+        return map.size();
+    }
+
+    /**
+     * @return Die maximale Anzahl gespeicherter Formeln.
+     */
+    public int maximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * @return Die Anzahl der Zugriffe, die aus dem Cache beantwortet wurden.
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return Die Anzahl der Zugriffe, für die die Formel zerlegt werden musste.
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return Der Anteil der Treffer an allen Zugriffen, 1.0 wenn noch kein Zugriff erfolgte.
+     */
+    public double hitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 1.0 : (double) hitCount / total;
+    }
+
+    /**
+     * @return Die Anzahl der verdrängten Einträge.
+     */
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return Die Anzahl der Fehltreffer, bei denen die Formel fehlerhaft war.
+     */
+    public long loadFailureCount() {
+        return loadFailures.sum();
+    }
+
+    /**
+     * @return Die insgesamt für das Zerlegen bei Fehltreffern aufgewendete Zeit in Nanosekunden.
+     */
+    public long totalLoadTimeNanos() {
+        return loadTimeNanos.sum();
+    }
+
+    /**
+     * @return Die durchschnittliche Ladezeit pro Fehltreffer in Nanosekunden.
+     */
+    public double averageLoadPenaltyNanos() {
+        long missCount = misses.sum();
+        return missCount == 0 ? 0.0 : (double) loadTimeNanos.sum() / missCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("FormulaCache[size=%d/%d, hitRate=%.4f, hits=%d, misses=%d, evictions=%d, avgLoad=%.0fns]",
+                size(), maximumSize, hitRate(), hitCount(), missCount(), evictionCount(), averageLoadPenaltyNanos());
+    }
+}
@@ -0,0 +1,407 @@
+package de.egosanto.chemie;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * FormulaFileProcessor description:
+ * Verarbeitet große Formeldateien (eine Formel pro Zeile oder CSV mit einer Formelspalte)
+ * als Datenstrom und schreibt zu jeder Zeile {@code formel,gewicht} in die Ausgabedatei.
+ * <p>
+ * Die Eingabe wird abschnittsweise in den Speicher abgebildet ({@link MappedByteBuffer});
+ * jeder Abschnitt endet an einer Zeilengrenze. Die Formeln werden direkt im Puffer
+ * zerlegt, ohne pro Zeile einen String zu erzeugen, und die Ausgabe eines Abschnitts wird
+ * in einem Byte-Puffer gesammelt und über einen {@link FileChannel} geschrieben. Der
+ * Speicherbedarf hängt daher nur von der Abschnittsgröße und der Anzahl gleichzeitig
+ * bearbeiteter Abschnitte ab, nicht von der Dateigröße.
+ * </p>
+ * <p>
+ * Mit mehreren Threads werden die Abschnitte parallel berechnet; höchstens zwei Abschnitte
+ * pro Thread sind gleichzeitig in Arbeit. Geschrieben wird immer in der Reihenfolge der
+ * Eingabe.
+ * </p>
+ * <p>
+ * CSV-Felder werden nur am Trennzeichen getrennt; ein Feld in Anführungszeichen darf das
+ * Trennzeichen nicht enthalten.
+ * </p>
+ * Date: 18.10.2026
+ * Project Name: chemie
+ *
+ * @author Toni Zeidler
+ * @see MolecularWeightCalculator#main(String[])
+ */
+public final class FormulaFileProcessor {
+
+    /** Standardgröße eines Abschnitts: 16 MiB. */
+    public static final int DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+
+    /** Maximale Anzahl gespeicherter Fehlermeldungen, weitere Fehler werden nur gezählt. */
+    static final int MAX_FEHLERMELDUNGEN = 100;
+
+    private static final byte[] HEADER = "formula,weight\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NAN = "NaN".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Zusammenfassung einer Verarbeitung.
+     */
+    public static final class Summary {
+        private final long lines;
+        private final long failures;
+        private final List<String> messages;
+
+        Summary(long lines, long failures, List<String> messages) {
+            this.lines = lines;
+            this.failures = failures;
+            this.messages = Collections.unmodifiableList(messages);
+        }
+
+        /**
+         * @return Die Anzahl der gelesenen Zeilen, einschließlich Kopfzeile und Leerzeilen.
+         */
+        public long lines() {
+            return lines;
+        }
+
+        /**
+         * @return Die Anzahl der Zeilen, deren Formel nicht berechnet werden konnte.
+         */
+        public long failures() {
+            return failures;
+        }
+
+        /**
+         * @return Die ersten Fehlermeldungen (höchstens 100) mit Zeilennummer.
+         */
+        public List<String> messages() {
+            return messages;
+        }
+
+        @Override
+        public String toString() {
+            return "Summary[lines=" + lines + ", failures=" + failures + "]";
+        }
+    }
+
+    private final int column;
+    private final byte delimiter;
+    private final boolean header;
+    private final int threads;
+    private final int segmentSize;
+
+    /**
+     * @param column    Die Spalte (0-basiert) mit der Formel, oder -1 wenn die ganze Zeile
+     *                  die Formel ist.
+     * @param delimiter Das Trennzeichen der CSV-Spalten (ASCII).
+     * @param header    {@code true}, wenn die erste Zeile eine Kopfzeile ist.
+     * @param threads   Die Anzahl der Threads, 1 für rein sequentielle Verarbeitung.
+     */
+    public FormulaFileProcessor(int column, char delimiter, boolean header, int threads) {
+        this(column, delimiter, header, threads, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * @param segmentSize Die Größe eines Abschnitts in Bytes; muss größer als die längste Zeile sein.
+     * @see #FormulaFileProcessor(int, char, boolean, int)
+     */
+    public FormulaFileProcessor(int column, char delimiter, boolean header, int threads, int segmentSize) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads muss mindestens 1 sein: " + threads);
+        }
+        if (delimiter > 0x7F) {
+            throw new IllegalArgumentException("Trennzeichen muss ein ASCII-Zeichen sein: " + delimiter);
+        }
+        if (segmentSize < 1) {
+            throw new IllegalArgumentException("segmentSize muss positiv sein: " + segmentSize);
+        }
+        this.column = column;
+        this.delimiter = (byte) delimiter;
+        this.header = header;
+        this.threads = threads;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Liest {@code input} und schreibt die Ergebnisse nach {@code output}. Eine vorhandene
+     * Ausgabedatei wird überschrieben.
+     *
+     * @param input  Die Eingabedatei.
+     * @param output Die Ausgabedatei.
+     * @return Die Zusammenfassung der Verarbeitung.
+     * @throws IOException Wenn eine Datei nicht gelesen oder geschrieben werden kann, oder
+     *                     eine Zeile länger als ein Abschnitt ist.
+     */
+    public Summary process(Path input, Path output) throws IOException {
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(output, StandardOpenOption.WRITE,
+                     StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            if (threads == 1) {
+                return processSequential(in, out);
+            }
+            return processParallel(in, out);
+        }
+    }
+
+    private Summary processSequential(FileChannel in, FileChannel out) throws IOException {
+        Zusammenfassung summe = new Zusammenfassung();
+        long size = in.size();
+        long start = 0;
+        while (start < size) {
+            long end = segmentEnd(in, start, size);
+            summe.add(out, processSegment(in, start, end));
+            start = end;
+        }
+        return summe.toSummary();
+    }
+
+    private Summary processParallel(FileChannel in, FileChannel out) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            Zusammenfassung summe = new Zusammenfassung();
+            ArrayDeque<Future<Abschnitt>> inArbeit = new ArrayDeque<>();
+            long size = in.size();
+            long start = 0;
+            while (start < size || !inArbeit.isEmpty()) {
+                while (start < size && inArbeit.size() < 2 * threads) {
+                    long from = start;
+                    long to = segmentEnd(in, from, size);
+                    inArbeit.add(executor.submit(() -> processSegment(in, from, to)));
+                    start = to;
+                }
+                summe.add(out, await(inArbeit.poll()));
+            }
+            return summe.toSummary();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Abschnitt await(Future<Abschnitt> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Verarbeitung unterbrochen", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Bestimmt das Ende des Abschnitts ab {@code start}: die Position hinter dem letzten
+     * Zeilenumbruch vor {@code start + segmentSize}, oder das Dateiende.
+     */
+    private long segmentEnd(FileChannel in, long start, long size) throws IOException {
+        long nominal = start + segmentSize;
+        if (nominal >= size) {
+            return size;
+        }
+        ByteBuffer probe = ByteBuffer.allocate(8192);
+        long pos = nominal;
+        while (pos > start) {
+            int len = (int) Math.min(probe.capacity(), pos - start);
+            probe.clear().limit(len);
+            in.read(probe, pos - len);
+            for (int i = len - 1; i >= 0; i--) {
+                if (probe.get(i) == '\n') {
+                    return pos - len + i + 1;
+                }
+            }
+            pos -= len;
+        }
+        throw new IOException("Zeile ab Byte " + start + " ist länger als ein Abschnitt (" + segmentSize + " Bytes)");
+    }
+
+    private Abschnitt processSegment(FileChannel in, long start, long end) {
+        MappedByteBuffer data;
+        try {
+            data = in.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        int length = (int) (end - start);
+        Abschnitt abschnitt = new Abschnitt(length + length / 2 + 64);
+        int pos = 0;
+        while (pos < length) {
+            int eol = pos;
+            while (eol < length && data.get(eol) != '\n') {
+                eol++;
+            }
+            int lineEnd = eol > pos && data.get(eol - 1) == '\r' ? eol - 1 : eol;
+            abschnitt.lines++;
+            if (start == 0 && header && abschnitt.lines == 1) {
+                abschnitt.write(HEADER, 0, HEADER.length);
+            } else if (lineEnd > pos) {
+                processLine(data, pos, lineEnd, abschnitt);
+            }
+            pos = eol + 1;
+        }
+        return abschnitt;
+    }
+
+    private void processLine(ByteBuffer data, int lineStart, int lineEnd, Abschnitt abschnitt) {
+        int from = lineStart;
+        int to = lineEnd;
+        if (column >= 0) {
+            for (int c = 0; c < column && from <= lineEnd; c++) {
+                while (from < lineEnd && data.get(from) != delimiter) {
+                    from++;
+                }
+                from++;
+            }
+            if (from > lineEnd) {
+                abschnitt.fail("Spalte " + column + " fehlt");
+                abschnitt.write(data, lineStart, lineEnd);
+                abschnitt.write(',');
+                abschnitt.write(NAN, 0, NAN.length);
+                abschnitt.write('\n');
+                return;
+            }
+            to = from;
+            while (to < lineEnd && data.get(to) != delimiter) {
+                to++;
+            }
+            if (to - from >= 2 && data.get(from) == '"' && data.get(to - 1) == '"') {
+                from++;
+                to--;
+            }
+        }
+
+        abschnitt.write(data, from, to);
+        abschnitt.write(',');
+        try {
+            abschnitt.writeWeight(FormulaParser.molecularWeight(data, from, to - from));
+        } catch (IllegalArgumentException e) {
+            abschnitt.fail(e.getMessage());
+            abschnitt.write(NAN, 0, NAN.length);
+        }
+        abschnitt.write('\n');
+    }
+
+    /**
+     * Ausgabe und Zähler eines Abschnitts.
+     */
+    private static final class Abschnitt {
+        byte[] out;
+        int size;
+        long lines;
+        long failures;
+        // Zeilennummern relativ zum Abschnitt, sie werden beim Zusammenführen ergänzt.
+        final List<Long> fehlerZeilen = new ArrayList<>(0);
+        final List<String> fehlerMeldungen = new ArrayList<>(0);
+
+        Abschnitt(int capacity) {
+            out = new byte[Math.max(capacity, 64)];
+        }
+
+        void fail(String message) {
+            failures++;
+            if (fehlerMeldungen.size() < MAX_FEHLERMELDUNGEN) {
+                fehlerZeilen.add(lines);
+                fehlerMeldungen.add(message);
+            }
+        }
+
+        void ensure(int additional) {
+            if (size + additional > out.length) {
+                out = Arrays.copyOf(out, Math.max(out.length * 2, size + additional));
+            }
+        }
+
+        void write(int b) {
+            ensure(1);
+            out[size++] = (byte) b;
+        }
+
+        void write(byte[] bytes, int from, int length) {
+            ensure(length);
+            System.arraycopy(bytes, from, out, size, length);
+            size += length;
+        }
+
+        void write(ByteBuffer data, int from, int to) {
+            ensure(to - from);
+            data.get(from, out, size, to - from);
+            size += to - from;
+        }
+
+        /** Schreibt das Gewicht mit vier Nachkommastellen, ohne einen String zu erzeugen. */
+        void writeWeight(double weight) {
+            if (Double.isNaN(weight) || Double.isInfinite(weight) || Math.abs(weight) >= 1e14) {
+                byte[] text = Double.toString(weight).getBytes(StandardCharsets.US_ASCII);
+                write(text, 0, text.length);
+                return;
+            }
+            long scaled = Math.round(weight * 10_000);
+            if (scaled < 0) {
+                write('-');
+                scaled = -scaled;
+            }
+            writeDigits(scaled / 10_000);
+            write('.');
+            long fraction = scaled % 10_000;
+            ensure(4);
+            for (int i = 3; i >= 0; i--) {
+                out[size + i] = (byte) ('0' + fraction % 10);
+                fraction /= 10;
+            }
+            size += 4;
+        }
+
+        private void writeDigits(long value) {
+            int digits = 1;
+            for (long v = value / 10; v != 0; v /= 10) {
+                digits++;
+            }
+            ensure(digits);
+            for (int i = digits - 1; i >= 0; i--) {
+                out[size + i] = (byte) ('0' + value % 10);
+                value /= 10;
+            }
+            size += digits;
+        }
+    }
+
+    /**
+     * Führt die Abschnitte in Eingabereihenfolge zusammen und schreibt ihre Ausgabe.
+     */
+    private static final class Zusammenfassung {
+        long lines;
+        long failures;
+        final List<String> messages = new ArrayList<>();
+
+        void add(FileChannel out, Abschnitt abschnitt) throws IOException {
+            ByteBuffer buffer = ByteBuffer.wrap(abschnitt.out, 0, abschnitt.size);
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            for (int i = 0; i < abschnitt.fehlerMeldungen.size() && messages.size() < MAX_FEHLERMELDUNGEN; i++) {
+                messages.add("Zeile " + (lines + abschnitt.fehlerZeilen.get(i)) + ": " + abschnitt.fehlerMeldungen.get(i));
+            }
+            lines += abschnitt.lines;
+            failures += abschnitt.failures;
+        }
+
+        Summary toSummary() {
+            return new Summary(lines, failures, messages);
+        }
+    }
+}
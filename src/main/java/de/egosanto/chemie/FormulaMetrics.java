@@ -0,0 +1,281 @@
+package de.egosanto.chemie;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * FormulaMetrics description:
+ * Zur Laufzeit schaltbare Messung aller Zerlegungen von Formeln, gleich ob über
+ * {@link MolecularWeightCalculator}, {@link Formula#parse(CharSequence)}, die Stapel- oder
+ * die Dateiverarbeitung. Gezählt werden Aufrufe und Fehler mit {@link LongAdder}, Laufzeit
+ * und Formellänge landen in je einem {@link LatencyHistogram}. Langsame (ab
+ * {@link #slowThresholdNanos()}) und fehlgeschlagene Zerlegungen werden zusätzlich als
+ * JFR-Ereignis {@code de.egosanto.chemie.FormulaParse} gemeldet.
+ * <p>
+ * Ausgeschaltet (Standard) kostet die Messung pro Aufruf nur das Lesen eines
+ * {@code volatile boolean}; die Zähler werden erst beim ersten Einschalten angelegt. Die
+ * Zeit für die Symbolauflösung wird nicht getrennt gemessen: ein Zugriff auf die
+ * Symboltabelle dauert etwa eine Nanosekunde, weniger als ein Aufruf von
+ * {@link System#nanoTime()}; er ist in der Zerlegungszeit enthalten.
+ * </p>
+ * <p>
+ * Einschalten per {@link #setEnabled(boolean)}, über JMX ({@link #registerMBean()}) oder beim
+ * Start mit {@code -Dde.egosanto.chemie.metrics=true}.
+ * </p>
+ * Date: 18.10.2026
+ * Project Name: chemie
+ *
+ * @author Toni Zeidler
+ * @see FormulaMetricsMXBean
+ * @see FormulaParseEvent
+ */
+public final class FormulaMetrics {
+
+    /** Name des MBeans, siehe {@link #registerMBean()}. */
+    public static final String OBJECT_NAME = "de.egosanto.chemie:type=FormulaMetrics";
+
+    private static volatile boolean enabled = Boolean.getBoolean("de.egosanto.chemie.metrics");
+    private static volatile long slowThresholdNanos = 1_000_000;
+
+    private FormulaMetrics() {
+    }
+
+    /**
+     * Zähler und Histogramme; liegen in einer eigenen Klasse, damit sie erst beim ersten
+     * Einschalten geladen werden und den Start nicht verzögern.
+     */
+    private static final class Daten {
+        static final LongAdder PARSES = new LongAdder();
+        static final LongAdder FAILURES = new LongAdder();
+        static final LongAdder SLOW = new LongAdder();
+        static final LatencyHistogram PARSE_NANOS = new LatencyHistogram();
+        static final LatencyHistogram LENGTH = new LatencyHistogram();
+    }
+
+    /**
+     * @return {@code true}, wenn die Messung eingeschaltet ist.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Schaltet die Messung ein oder aus. Bereits gezählte Werte bleiben erhalten.
+     *
+     * @param on {@code true} zum Einschalten.
+     */
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    /**
+     * @return Ab dieser Laufzeit gilt eine Zerlegung als langsam und wird als JFR-Ereignis gemeldet.
+     */
+    public static long slowThresholdNanos() {
+        return slowThresholdNanos;
+    }
+
+    /**
+     * @param nanos Die Schwelle für langsame Zerlegungen in Nanosekunden (Standard 1 ms).
+     */
+    public static void setSlowThresholdNanos(long nanos) {
+        if (nanos < 0) {
+            throw new IllegalArgumentException("Schwelle darf nicht negativ sein: " + nanos);
+        }
+        slowThresholdNanos = nanos;
+    }
+
+    static void recordSuccess(FormulaParser parser, int length, long nanos) {
+        Daten.PARSES.increment();
+        Daten.PARSE_NANOS.record(nanos);
+        Daten.LENGTH.record(length);
+        if (nanos >= slowThresholdNanos) {
+            Daten.SLOW.increment();
+            FormulaParseEvent event = new FormulaParseEvent();
+            if (event.isEnabled()) {
+                event.formula = parser.text();
+                event.length = length;
+                event.parseNanos = nanos;
+                event.commit();
+            }
+        }
+    }
+
+    static void recordFailure(FormulaParser parser, FormulaParseException e, int length, long nanos) {
+        Daten.PARSES.increment();
+        Daten.FAILURES.increment();
+        Daten.PARSE_NANOS.record(nanos);
+        Daten.LENGTH.record(length);
+        FormulaParseEvent event = new FormulaParseEvent();
+        if (event.isEnabled()) {
+            event.formula = parser.text();
+            event.length = length;
+            event.parseNanos = nanos;
+            event.failed = true;
+            event.error = e.getMessage();
+            event.commit();
+        }
+    }
+
+    /**
+     * @return Die Anzahl gemessener Zerlegungen, einschließlich fehlgeschlagener.
+     */
+    public static long parseCount() {
+        return Daten.PARSES.sum();
+    }
+
+    /**
+     * @return Die Anzahl fehlgeschlagener Zerlegungen.
+     */
+    public static long failureCount() {
+        return Daten.FAILURES.sum();
+    }
+
+    /**
+     * @return Die Anzahl Zerlegungen ab {@link #slowThresholdNanos()}.
+     */
+    public static long slowParseCount() {
+        return Daten.SLOW.sum();
+    }
+
+    /**
+     * @return Der Anteil fehlgeschlagener Zerlegungen, 0 wenn noch keine gemessen wurde.
+     */
+    public static double errorRate() {
+        long parses = Daten.PARSES.sum();
+        return parses == 0 ? 0 : (double) Daten.FAILURES.sum() / parses;
+    }
+
+    /**
+     * @return Das Histogramm der Zerlegungszeiten in Nanosekunden.
+     */
+    public static LatencyHistogram parseNanos() {
+        return Daten.PARSE_NANOS;
+    }
+
+    /**
+     * @return Das Histogramm der Formellängen in Zeichen.
+     */
+    public static LatencyHistogram formulaLength() {
+        return Daten.LENGTH;
+    }
+
+    /**
+     * Setzt alle Zähler und Histogramme zurück.
+     */
+    public static void reset() {
+        Daten.PARSES.reset();
+        Daten.FAILURES.reset();
+        Daten.SLOW.reset();
+        Daten.PARSE_NANOS.reset();
+        Daten.LENGTH.reset();
+    }
+
+    /**
+     * Registriert das MBean unter {@link #OBJECT_NAME} beim Plattform-MBean-Server, sofern
+     * es noch nicht registriert ist.
+     *
+     * @throws IllegalStateException Wenn die Registrierung fehlschlägt.
+     */
+    public static void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new Bean(), name);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("MBean konnte nicht registriert werden", e);
+        }
+    }
+
+    private static final class Bean implements FormulaMetricsMXBean {
+        @Override
+        public boolean isEnabled() {
+            return FormulaMetrics.isEnabled();
+        }
+
+        @Override
+        public void setEnabled(boolean on) {
+            FormulaMetrics.setEnabled(on);
+        }
+
+        @Override
+        public long getSlowThresholdNanos() {
+            return FormulaMetrics.slowThresholdNanos();
+        }
+
+        @Override
+        public void setSlowThresholdNanos(long nanos) {
+            FormulaMetrics.setSlowThresholdNanos(nanos);
+        }
+
+        @Override
+        public long getParseCount() {
+            return parseCount();
+        }
+
+        @Override
+        public long getFailureCount() {
+            return failureCount();
+        }
+
+        @Override
+        public double getErrorRate() {
+            return errorRate();
+        }
+
+        @Override
+        public double getMeanParseNanos() {
+            return Daten.PARSE_NANOS.mean();
+        }
+
+        @Override
+        public long getP50ParseNanos() {
+            return Daten.PARSE_NANOS.valueAtPercentile(50);
+        }
+
+        @Override
+        public long getP99ParseNanos() {
+            return Daten.PARSE_NANOS.valueAtPercentile(99);
+        }
+
+        @Override
+        public long getP999ParseNanos() {
+            return Daten.PARSE_NANOS.valueAtPercentile(99.9);
+        }
+
+        @Override
+        public long getMaxParseNanos() {
+            return Daten.PARSE_NANOS.max();
+        }
+
+        @Override
+        public double getMeanFormulaLength() {
+            return Daten.LENGTH.mean();
+        }
+
+        @Override
+        public long getP99FormulaLength() {
+            return Daten.LENGTH.valueAtPercentile(99);
+        }
+
+        @Override
+        public long getMaxFormulaLength() {
+            return Daten.LENGTH.max();
+        }
+
+        @Override
+        public long getSlowParseCount() {
+            return slowParseCount();
+        }
+
+        @Override
+        public void reset() {
+            FormulaMetrics.reset();
+        }
+    }
+}
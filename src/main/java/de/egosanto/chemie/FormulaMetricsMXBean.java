@@ -0,0 +1,48 @@
+package de.egosanto.chemie;
+
+/**
+ * FormulaMetricsMXBean description:
+ * JMX-Sicht auf {@link FormulaMetrics}, registriert unter
+ * {@value FormulaMetrics#OBJECT_NAME}. Alle Zeiten in Nanosekunden, Längen in Zeichen.
+ * Date: 18.10.2026
+ * Project Name: chemie
+ *
+ * @author Toni Zeidler
+ * @see FormulaMetrics#registerMBean()
+ */
+public interface FormulaMetricsMXBean {
+
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    long getSlowThresholdNanos();
+
+    void setSlowThresholdNanos(long nanos);
+
+    long getParseCount();
+
+    long getFailureCount();
+
+    double getErrorRate();
+
+    double getMeanParseNanos();
+
+    long getP50ParseNanos();
+
+    long getP99ParseNanos();
+
+    long getP999ParseNanos();
+
+    long getMaxParseNanos();
+
+    double getMeanFormulaLength();
+
+    long getP99FormulaLength();
+
+    long getMaxFormulaLength();
+
+    long getSlowParseCount();
+
+    void reset();
+}
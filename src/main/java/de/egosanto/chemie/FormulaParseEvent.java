@@ -0,0 +1,41 @@
+package de.egosanto.chemie;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * FormulaParseEvent description:
+ * JFR-Ereignis für eine langsame oder fehlgeschlagene Zerlegung, ausgelöst von
+ * {@link FormulaMetrics}, solange die Metriken eingeschaltet sind und eine Aufzeichnung
+ * das Ereignis aktiviert hat, z.B. mit {@code -XX:StartFlightRecording}.
+ * Date: 18.10.2026
+ * Project Name: chemie
+ *
+ * @author Toni Zeidler
+ * @see FormulaMetrics#setSlowThresholdNanos(long)
+ */
+@Name("de.egosanto.chemie.FormulaParse")
+@Label("Formula Parse")
+@Category("Chemie")
+@Description("Langsame oder fehlgeschlagene Zerlegung einer chemischen Formel")
+final class FormulaParseEvent extends jdk.jfr.Event {
+
+    @Label("Formula")
+    String formula;
+
+    @Label("Length")
+    int length;
+
+    @Label("Parse Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long parseNanos;
+
+    @Label("Failed")
+    boolean failed;
+
+    @Label("Error")
+    String error;
+}
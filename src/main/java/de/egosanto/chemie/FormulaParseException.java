@@ -0,0 +1,38 @@
+package de.egosanto.chemie;
+
+/**
+ * FormulaParseException description:
+ * Wird geworfen, wenn eine chemische Formel nicht der erwarteten Syntax entspricht
+ * oder ein unbekanntes Elementsymbol enthält. Die Ausnahme merkt sich die Position
+ * (relativ zum Beginn der Formel), an der der Fehler erkannt wurde.
+ * Date: 18.10.2026
+ * Project Name: chemie
+ *
+ * @author Toni Zeidler
+ * @see FormulaParser
+ */
+public class FormulaParseException extends IllegalArgumentException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int position;
+
+    /**
+     * @param message  Beschreibung des Fehlers.
+     * @param formula  Die fehlerhafte Formel (oder der betroffene Ausschnitt).
+     * @param position Die Position des fehlerhaften Zeichens innerhalb der Formel.
+     */
+    public FormulaParseException(String message, CharSequence formula, int position) {
+        super(message + " an Position " + position + " in \"" + formula + "\"");
+        this.position = position;
+    }
+
+    /**
+     * Gibt die Position des fehlerhaften Zeichens zurück.
+     *
+     * @return Die Position relativ zum Beginn der Formel (0-basiert).
+     */
+    public int getPosition() {
+        return position;
+    }
+}
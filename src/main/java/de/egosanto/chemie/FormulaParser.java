@@ -0,0 +1,536 @@
+package de.egosanto.chemie;
+
+import de.egosanto.chemie.utils.Element;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * FormulaParser description:
+ * Handgeschriebener Parser für chemische Summenformeln, der die Formel Zeichen für
+ * Zeichen liest. Im Gegensatz zum früheren Regex-Ansatz werden pro
+ * Aufruf weder {@code Matcher} noch Teil-Strings erzeugt; Symbole werden über
+ * {@link Element#bySymbol(char, char)} aufgelöst. Fehlerhafte Eingaben werden mit ihrer
+ * Position gemeldet statt stillschweigend übersprungen.
+ * <p>
+ * Grammatik:
+ * <pre>
+ * formel   := teil (trenner teil)* ladung?
+ * teil     := zahl? gruppe+
+ * gruppe   := (symbol | '(' gruppe+ ')' | '[' gruppe+ ']') zahl?
+ * trenner  := '·' | '•' | '*' | '.'
+ * ladung   := '^'? (zahl? ('+' | '-') | ('+' | '-') zahl | '+'+ | '-'+)
+ * </pre>
+ * Beispiele: "Ca(OH)2", "[Fe(CN)6]^4-", "CuSO4·5H2O", "SO4^2-", "NO3^-". Eine Zahl direkt
+ * vor dem abschließenden Vorzeichen ist mehrdeutig ("Fe3+" gegenüber "NO3-") und wird nur
+ * bei einem einzelnen Element als Ladung gelesen: "Fe3+" ist ein Eisen-Ion mit Ladung +3.
+ * In allen anderen Fällen wird ein '^' verlangt. Anzahlen und Koeffizienten dürfen nicht 0 sein.
+ * </p>
+ * <p>
+ * Der Multiplikator einer Klammer wird beim Öffnen über die schließende Klammer bestimmt,
+ * damit jedes Atom genau einmal mit seiner endgültigen Anzahl gemeldet wird. Die
+ * Klammerpaare werden dazu beim ersten Klammerzeichen in einem einzigen Durchlauf
+ * zugeordnet; offene Gruppen liegen auf einem eigenen Stapel statt auf dem Aufrufstapel.
+ * Der Aufwand ist so auch bei beliebig tiefer Verschachtelung linear in der Länge der
+ * Formel, und es kann kein {@link StackOverflowError} auftreten. Für die reine
+ * Gewichtsberechnung ohne Klammern werden keine Objekte erzeugt.
+ * </p>
+ * <p>
+ * Eine Instanz ist nicht threadsicher. Die statischen Methoden verwenden daher eine
+ * Instanz pro Thread, die bei jedem Aufruf wiederverwendet wird.
+ * </p>
+ * Date: 18.10.2026
+ * Project Name: chemie
+ *
+ * @author Toni Zeidler
+ * @see MolecularWeightCalculator
+ * @see Formula
+ */
+final class FormulaParser {
+
+    // Bewusst ohne Lambda (ThreadLocal.withInitial), dessen Bootstrap den ersten Aufruf um
+    // mehrere Millisekunden verzögert.
+    private static final ThreadLocal<FormulaParser> PARSER = new ThreadLocal<>() {
+        @Override
+        protected FormulaParser initialValue() {
+            return new FormulaParser();
+        }
+    };
+
+    // Genau eine der vier Quellen ist während eines Aufrufs gesetzt.
+    private CharSequence sequence;
+    private char[] chars;
+    private byte[] bytes;
+    private ByteBuffer buffer;
+    private int offset;
+    private int end;
+
+    // Zustand des laufenden Aufrufs
+    private int pos;
+    private int last;
+    private int[] counts;
+    private double weight;
+    private boolean exact;
+    private long micros;
+    private int charge;
+    private int numberEnd;
+    private int first;
+
+    // Klammerpaare ab "klammernAb": für jede öffnende Klammer an Position p steht die
+    // Position der schließenden in klammern[p - klammernAb], -1 wenn sie fehlt.
+    private int[] klammern;
+    private int klammernAb;
+
+    // Offene Gruppen, je GRUPPE Einträge: Multiplikator, schließende Klammer, Ende der
+    // Anzahl dahinter und Beginn der umgebenden Gruppe.
+    private int[] gruppen = new int[4 * GRUPPE];
+
+    /** Einträge je offener Gruppe in {@link #gruppen}. */
+    private static final int GRUPPE = 4;
+
+    /** Größere Hilfsarrays werden nach einem Aufruf nicht für den Thread aufbewahrt. */
+    private static final int BEHALTEN = 1024;
+
+    private FormulaParser() {
+    }
+
+    /**
+     * Berechnet das Molekulargewicht der gegebenen Formel.
+     *
+     * @param formula Die chemische Formel, z.B. "H2O".
+     * @return Das Molekulargewicht in g/mol.
+     * @throws FormulaParseException Wenn die Formel fehlerhaft ist.
+     */
+    static double molecularWeight(CharSequence formula) {
+        return forSequence(formula).parse(null);
+    }
+
+    /**
+     * Berechnet das Molekulargewicht der Formel im angegebenen Ausschnitt eines {@code char[]}.
+     *
+     * @param formula Das Array, das die Formel enthält.
+     * @param offset  Der Index des ersten Zeichens der Formel.
+     * @param length  Die Anzahl der Zeichen der Formel.
+     * @return Das Molekulargewicht in g/mol.
+     * @throws FormulaParseException Wenn die Formel fehlerhaft ist.
+     */
+    static double molecularWeight(char[] formula, int offset, int length) {
+        return forChars(formula, offset, length).parse(null);
+    }
+
+    /**
+     * Berechnet das Molekulargewicht der Formel im angegebenen Ausschnitt eines
+     * ASCII-kodierten {@code byte[]}. Als Hydrat-Trenner dienen hier '*' oder '.'.
+     *
+     * @param formula Das Array, das die Formel enthält.
+     * @param offset  Der Index des ersten Bytes der Formel.
+     * @param length  Die Anzahl der Bytes der Formel.
+     * @return Das Molekulargewicht in g/mol.
+     * @throws FormulaParseException Wenn die Formel fehlerhaft ist.
+     */
+    static double molecularWeight(byte[] formula, int offset, int length) {
+        return forBytes(formula, offset, length).parse(null);
+    }
+
+    /**
+     * Berechnet das Molekulargewicht der ASCII-kodierten Formel im Bereich
+     * {@code [offset, offset + length)} eines {@link ByteBuffer}, z.B. einer in den Speicher
+     * abgebildeten Datei. Position und Limit des Puffers werden nicht verändert.
+     *
+     * @param formula Der Puffer, der die Formel enthält.
+     * @param offset  Der absolute Index des ersten Bytes der Formel.
+     * @param length  Die Anzahl der Bytes der Formel.
+     * @return Das Molekulargewicht in g/mol.
+     * @throws FormulaParseException Wenn die Formel fehlerhaft ist.
+     */
+    static double molecularWeight(ByteBuffer formula, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, formula.limit());
+        FormulaParser parser = PARSER.get();
+        parser.buffer = formula;
+        parser.offset = offset;
+        parser.end = offset + length;
+        return parser.parse(null);
+    }
+
+    /**
+     * Berechnet das Molekulargewicht exakt in ganzen Mikro-g/mol.
+     *
+     * @param formula Die chemische Formel.
+     * @return Das Molekulargewicht in Mikro-g/mol.
+     * @throws FormulaParseException Wenn die Formel fehlerhaft ist oder die Masse nicht in ein {@code long} passt.
+     * @see ExactMass
+     */
+    static long exactMass(CharSequence formula) {
+        FormulaParser parser = forSequence(formula);
+        parser.exact = true;
+        parser.parse(null);
+        return parser.micros;
+    }
+
+    /**
+     * Zerlegt die Formel und addiert die Atomanzahlen in {@code counts}.
+     *
+     * @param formula Die chemische Formel.
+     * @param counts  Array der Länge 119, indiziert über die Ordnungszahl.
+     * @return Die Ladung der Formel.
+     * @throws FormulaParseException Wenn die Formel fehlerhaft ist.
+     */
+    static int composition(CharSequence formula, int[] counts) {
+        FormulaParser parser = forSequence(formula);
+        parser.parse(counts);
+        return parser.charge;
+    }
+
+    private static FormulaParser forSequence(CharSequence formula) {
+        Objects.requireNonNull(formula, "formula");
+        FormulaParser parser = PARSER.get();
+        parser.sequence = formula;
+        parser.offset = 0;
+        parser.end = formula.length();
+        return parser;
+    }
+
+    private static FormulaParser forChars(char[] formula, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, formula.length);
+        FormulaParser parser = PARSER.get();
+        parser.chars = formula;
+        parser.offset = offset;
+        parser.end = offset + length;
+        return parser;
+    }
+
+    private static FormulaParser forBytes(byte[] formula, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, formula.length);
+        FormulaParser parser = PARSER.get();
+        parser.bytes = formula;
+        parser.offset = offset;
+        parser.end = offset + length;
+        return parser;
+    }
+
+    private double parse(int[] counts) {
+        try {
+            this.counts = counts;
+            if (!FormulaMetrics.isEnabled()) {
+                return run();
+            }
+            long start = System.nanoTime();
+            try {
+                double result = run();
+                FormulaMetrics.recordSuccess(this, end - offset, System.nanoTime() - start);
+                return result;
+            } catch (FormulaParseException e) {
+                FormulaMetrics.recordFailure(this, e, end - offset, System.nanoTime() - start);
+                throw e;
+            }
+        } finally {
+            sequence = null;
+            chars = null;
+            bytes = null;
+            buffer = null;
+            this.counts = null;
+            exact = false;
+            if (klammern != null && klammern.length > BEHALTEN) {
+                klammern = null;
+            }
+            if (gruppen.length > BEHALTEN) {
+                gruppen = new int[4 * GRUPPE];
+            }
+        }
+    }
+
+    private double run() {
+        weight = 0;
+        micros = 0;
+        charge = 0;
+        pos = offset;
+        last = end;
+        while (pos < last && Character.isWhitespace(charAt(pos))) {
+            pos++;
+        }
+        while (last > pos && Character.isWhitespace(charAt(last - 1))) {
+            last--;
+        }
+        if (pos == last) {
+            throw error("Leere Formel", pos);
+        }
+        first = pos;
+        klammernAb = -1;
+
+        while (true) {
+            int coefficient = 1;
+            if (isDigit(charAt(pos))) {
+                coefficient = readNumber(pos);
+                if (coefficient == 0) {
+                    throw error("Koeffizient darf nicht 0 sein", pos);
+                }
+                pos = numberEnd;
+            }
+            parseGroups(coefficient);
+            if (pos == last) {
+                break;
+            }
+            char c = charAt(pos);
+            if (isHydrateSeparator(c)) {
+                pos++;
+                if (pos == last) {
+                    throw error("Formel nach Trenner erwartet", pos);
+                }
+            } else if (c == '^' || c == '+' || c == '-' || isDigit(c)) {
+                parseCharge();
+                break;
+            } else if (c == ')' || c == ']') {
+                throw error("Unerwartete schließende Klammer", pos);
+            } else {
+                throw error("Elementsymbol erwartet", pos);
+            }
+        }
+        return weight;
+    }
+
+    /**
+     * Liest eine Folge von Elementen und Klammergruppen, bis ein Zeichen folgt, das keine
+     * Gruppe beginnt, und meldet jedes Atom mit dem Faktor {@code multiplier}. Geöffnete
+     * Klammern werden auf {@link #gruppen} gelegt und an ihrer schließenden Klammer wieder
+     * entnommen.
+     */
+    private void parseGroups(int multiplier) {
+        int start = pos;
+        int tiefe = 0;
+        while (true) {
+            char c = pos < last ? charAt(pos) : '\0';
+            if (c >= 'A' && c <= 'Z') {
+                int symbolStart = pos++;
+                char second = '\0';
+                if (pos < last) {
+                    char next = charAt(pos);
+                    if (next >= 'a' && next <= 'z') {
+                        second = next;
+                        pos++;
+                    }
+                }
+                Element element = Element.bySymbol(c, second);
+                if (element == null) {
+                    throw error("Unbekanntes Elementsymbol", symbolStart);
+                }
+                int count = countAt(pos, symbolStart == first);
+                pos = numberEnd;
+                add(element, multiply(count, multiplier, symbolStart));
+            } else if (c == '(' || c == '[') {
+                int open = pos;
+                int close = findClosing(open);
+                int count = countAt(close + 1, false);
+                int i = tiefe++ * GRUPPE;
+                if (i == gruppen.length) {
+                    gruppen = Arrays.copyOf(gruppen, 2 * i);
+                }
+                gruppen[i] = multiplier;
+                gruppen[i + 1] = close;
+                gruppen[i + 2] = numberEnd;
+                gruppen[i + 3] = start;
+                multiplier = multiply(count, multiplier, open);
+                start = ++pos;
+            } else if (tiefe > 0) {
+                // Ende der innersten offenen Gruppe
+                if (pos == start) {
+                    throw error("Elementsymbol erwartet", pos);
+                }
+                int i = --tiefe * GRUPPE;
+                if (pos != gruppen[i + 1]) {
+                    throw error("Unerwartetes Zeichen in Klammer", pos);
+                }
+                multiplier = gruppen[i];
+                pos = gruppen[i + 2];
+                start = gruppen[i + 3];
+            } else {
+                break;
+            }
+        }
+        if (pos == start) {
+            throw error("Elementsymbol erwartet", pos);
+        }
+    }
+
+    /** Liest die Ladung bis zum Ende der Formel. */
+    private void parseCharge() {
+        if (charAt(pos) == '^') {
+            pos++;
+        }
+        int betrag = 1;
+        boolean zahlVorZeichen = pos < last && isDigit(charAt(pos));
+        if (zahlVorZeichen) {
+            betrag = readNumber(pos);
+            pos = numberEnd;
+        }
+        if (pos == last || (charAt(pos) != '+' && charAt(pos) != '-')) {
+            throw error("Vorzeichen der Ladung erwartet", pos);
+        }
+        char sign = charAt(pos++);
+        if (!zahlVorZeichen) {
+            if (pos < last && isDigit(charAt(pos))) {
+                betrag = readNumber(pos);
+                pos = numberEnd;
+            } else {
+                while (pos < last && charAt(pos) == sign) {
+                    betrag++;
+                    pos++;
+                }
+            }
+        }
+        if (pos != last) {
+            throw error("Ende der Formel nach Ladung erwartet", pos);
+        }
+        charge = sign == '+' ? betrag : -betrag;
+    }
+
+    /**
+     * Liest die Anzahl ab Position {@code p}; fehlt sie, ist die Anzahl 1. Steht die Zahl
+     * direkt vor dem abschließenden Vorzeichen, gehört sie nur bei einem einzelnen Element
+     * ({@code einzeln}, z.B. "3+" in "Fe3+") zur Ladung; sonst ist sie mehrdeutig ("NO3-")
+     * und wird abgelehnt. Das Ende der gelesenen Anzahl steht danach in {@link #numberEnd}.
+     */
+    private int countAt(int p, boolean einzeln) {
+        numberEnd = p;
+        if (p >= last || !isDigit(charAt(p))) {
+            return 1;
+        }
+        int count = readNumber(p);
+        if (numberEnd + 1 == last && (charAt(numberEnd) == '+' || charAt(numberEnd) == '-')) {
+            if (!einzeln) {
+                throw error("Mehrdeutige Ladung, bitte '^' verwenden (z.B. \"NO3^-\" oder \"Fe^3+\")", p);
+            }
+            numberEnd = p;
+            return 1;
+        }
+        if (count == 0) {
+            throw error("Anzahl darf nicht 0 sein", p);
+        }
+        return count;
+    }
+
+    private int readNumber(int p) {
+        int value = 0;
+        do {
+            int digit = charAt(p) - '0';
+            if (value > (Integer.MAX_VALUE - digit) / 10) {
+                throw error("Anzahl zu groß", p);
+            }
+            value = value * 10 + digit;
+            p++;
+        } while (p < last && isDigit(charAt(p)));
+        numberEnd = p;
+        return value;
+    }
+
+    /** Gibt die passende schließende Klammer zur öffnenden Klammer an Position {@code open} zurück. */
+    private int findClosing(int open) {
+        if (klammernAb < 0) {
+            ordneKlammern(open);
+        }
+        int close = klammern[open - klammernAb];
+        if (close < 0) {
+            throw error("Klammer wird nicht geschlossen", open);
+        }
+        if (charAt(close) != (charAt(open) == '(' ? ')' : ']')) {
+            throw error("Schließende Klammer passt nicht zu Position " + (open - offset), close);
+        }
+        return close;
+    }
+
+    /**
+     * Ordnet ab Position {@code from} (der ersten öffnenden Klammer) in einem Durchlauf
+     * jeder öffnenden Klammer ihre schließende zu, ohne Rücksicht auf die Art der Klammer.
+     * Der Stapel der offenen Klammern ist in {@link #klammern} selbst verkettet: bis zu
+     * ihrer Zuordnung hält eine offene Klammer dort die Position der vorherigen.
+     */
+    private void ordneKlammern(int from) {
+        int n = last - from;
+        if (klammern == null || klammern.length < n) {
+            klammern = new int[Math.max(n, 16)];
+        }
+        int offen = -1;
+        for (int p = from; p < last; p++) {
+            char c = charAt(p);
+            if (c == '(' || c == '[') {
+                klammern[p - from] = offen;
+                offen = p;
+            } else if ((c == ')' || c == ']') && offen >= 0) {
+                int vorherige = klammern[offen - from];
+                klammern[offen - from] = p;
+                offen = vorherige;
+            }
+        }
+        while (offen >= 0) {
+            int vorherige = klammern[offen - from];
+            klammern[offen - from] = -1;
+            offen = vorherige;
+        }
+        klammernAb = from;
+    }
+
+    private int multiply(int count, int multiplier, int p) {
+        long product = (long) count * multiplier;
+        if (product > Integer.MAX_VALUE) {
+            throw error("Anzahl zu groß", p);
+        }
+        return (int) product;
+    }
+
+    private void add(Element element, int count) {
+        weight += element.atomGewicht() * count;
+        if (exact) {
+            // Höchstens 2^31 * 3 * 10^8, das Produkt läuft also nicht über; die Summe kann es.
+            long sum = micros + Element.atomGewichtMikro(element.ordnungsZahl()) * count;
+            if (sum < micros) {
+                throw error("Masse zu groß", pos);
+            }
+            micros = sum;
+        }
+        if (counts != null) {
+            int z = element.ordnungsZahl();
+            long sum = (long) counts[z] + count;
+            if (sum > Integer.MAX_VALUE) {
+                throw error("Anzahl zu groß", pos);
+            }
+            counts[z] = (int) sum;
+        }
+    }
+
+    private char charAt(int index) {
+        if (bytes != null) {
+            return (char) (bytes[index] & 0xFF);
+        }
+        if (buffer != null) {
+            return (char) (buffer.get(index) & 0xFF);
+        }
+        if (chars != null) {
+            return chars[index];
+        }
+        return sequence.charAt(index);
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isHydrateSeparator(char c) {
+        return c == '·' || c == '•' || c == '*' || c == '.';
+    }
+
+    /**
+     * Erzeugt die Ausnahme für einen Fehler an der absoluten Position {@code index}.
+     * Der Formeltext wird erst hier, also nur im Fehlerfall, als String erzeugt.
+     */
+    private FormulaParseException error(String message, int index) {
+        return new FormulaParseException(message, text(), index - offset);
+    }
+
+    /** Die Formel des laufenden Aufrufs als String, für Fehlermeldungen und Messungen. */
+    String text() {
+        StringBuilder text = new StringBuilder(end - offset);
+        for (int i = offset; i < end; i++) {
+            text.append(charAt(i));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,291 @@
+package de.egosanto.chemie;
+
+import de.egosanto.chemie.utils.Element;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * FormulaSearch description:
+ * Rückwärtssuche von einer gemessenen Masse zu möglichen Summenformeln, z.B. "alle
+ * CxHyNzOw innerhalb von 5 ppm um 180,063".
+ * <p>
+ * Die erlaubten Elemente werden nach absteigender Masse sortiert und in dieser
+ * Reihenfolge per Tiefensuche mit Anzahlen belegt (Branch and Bound). Für jede Ebene
+ * wird aus der bisherigen Masse und der minimal bzw. maximal erreichbaren Restmasse der
+ * übrigen Elemente direkt berechnet, welche Anzahlen noch ins Zielfenster führen können;
+ * alle anderen Zweige werden gar nicht erst betreten. Auf der letzten Ebene ergibt sich
+ * so unmittelbar der Bereich der Treffer. Jeder Treffer enthält mindestens ein Atom, auch
+ * wenn das Zielfenster die Masse 0 einschließt.
+ * </p>
+ * <p>
+ * Die Treffer werden als {@link Stream} geliefert und erst beim Verbrauchen berechnet,
+ * {@code limit()} oder {@code findFirst()} beenden die Suche also vorzeitig. Für parallele
+ * Streams wird der Suchraum nach den Anzahlen des schwersten Elements aufgeteilt.
+ * </p>
+ * Date: 18.10.2026
+ * Project Name: chemie
+ *
+ * @author Toni Zeidler
+ * @see Formula
+ */
+public final class FormulaSearch {
+
+    private final double targetMass;
+    private final double tolerance;
+    private final List<Element> elements = new ArrayList<>();
+    private final List<int[]> bounds = new ArrayList<>();
+
+    /**
+     * @param targetMass Die gesuchte Masse in g/mol.
+     * @param tolerance  Die erlaubte absolute Abweichung in g/mol.
+     */
+    public FormulaSearch(double targetMass, double tolerance) {
+        if (!(targetMass > 0) || !(tolerance >= 0)) {
+            throw new IllegalArgumentException("Masse muss positiv und Toleranz nicht negativ sein");
+        }
+        this.targetMass = targetMass;
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * @param targetMass Die gesuchte Masse in g/mol.
+     * @param ppm        Die erlaubte relative Abweichung in ppm (Millionstel).
+     * @return Die Suche.
+     */
+    public static FormulaSearch withPpm(double targetMass, double ppm) {
+        return new FormulaSearch(targetMass, targetMass * ppm * 1e-6);
+    }
+
+    /**
+     * Erlaubt ein Element mit beliebiger Anzahl; die Obergrenze ergibt sich aus der Zielmasse.
+     *
+     * @param element Das Element.
+     * @return Diese Suche.
+     */
+    public FormulaSearch allow(Element element) {
+        return allow(element, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Erlaubt ein Element mit einer Anzahl zwischen {@code min} und {@code max}.
+     *
+     * @param element Das Element.
+     * @param min     Die minimale Anzahl.
+     * @param max     Die maximale Anzahl.
+     * @return Diese Suche.
+     * @throws IllegalArgumentException Wenn die Grenzen ungültig sind oder das Element schon erlaubt ist.
+     */
+    public FormulaSearch allow(Element element, int min, int max) {
+        if (min < 0 || max < min) {
+            throw new IllegalArgumentException("Ungültige Grenzen für " + element + ": " + min + ".." + max);
+        }
+        if (elements.contains(element)) {
+            throw new IllegalArgumentException("Element bereits erlaubt: " + element);
+        }
+        elements.add(element);
+        bounds.add(new int[] {min, max});
+        return this;
+    }
+
+    /**
+     * @return Alle Formeln, deren Masse im Zielfenster liegt, sequentiell berechnet.
+     */
+    public Stream<Formula> stream() {
+        return StreamSupport.stream(new Suche(this), false);
+    }
+
+    /**
+     * @return Alle Formeln, deren Masse im Zielfenster liegt, parallel berechnet.
+     */
+    public Stream<Formula> parallelStream() {
+        return StreamSupport.stream(new Suche(this), true);
+    }
+
+    /**
+     * Tiefensuche mit explizitem Zustand, damit sie Treffer für Treffer fortgesetzt und
+     * nach der Anzahl des ersten (schwersten) Elements geteilt werden kann.
+     */
+    private static final class Suche implements Spliterator<Formula> {
+        private final int n;
+        private final Element[] element;
+        private final double[] masse;
+        private final int[] min;
+        private final int[] max;
+        /** Minimal bzw. maximal erreichbare Masse der Ebenen k..n-1. */
+        private final double[] minRest;
+        private final double[] maxRest;
+        private final double lo;
+        private final double hi;
+
+        // Bereich der Anzahl des ersten Elements, der dieser Instanz gehört.
+        private int erstesVon;
+        private int erstesBis;
+
+        private final int[] anzahl;
+        private final int[] obergrenze;
+        private final double[] masseDavor;
+        private boolean gestartet;
+        private boolean erschoepft;
+
+        Suche(FormulaSearch search) {
+            n = search.elements.size();
+            Integer[] order = new Integer[n];
+            for (int i = 0; i < n; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) ->
+                    Double.compare(search.elements.get(b).atomGewicht(), search.elements.get(a).atomGewicht()));
+
+            lo = search.targetMass - search.tolerance;
+            hi = search.targetMass + search.tolerance;
+            element = new Element[n];
+            masse = new double[n];
+            min = new int[n];
+            max = new int[n];
+            for (int i = 0; i < n; i++) {
+                element[i] = search.elements.get(order[i]);
+                masse[i] = element[i].atomGewicht();
+                int[] bound = search.bounds.get(order[i]);
+                min[i] = bound[0];
+                max[i] = (int) Math.min(bound[1], Math.floor(hi / masse[i]));
+            }
+            minRest = new double[n + 1];
+            maxRest = new double[n + 1];
+            for (int k = n - 1; k >= 0; k--) {
+                minRest[k] = minRest[k + 1] + min[k] * masse[k];
+                maxRest[k] = maxRest[k + 1] + Math.max(max[k], 0) * masse[k];
+            }
+
+            anzahl = new int[n];
+            obergrenze = new int[n];
+            masseDavor = new double[n + 1];
+            erschoepft = n == 0 || minRest[0] > hi || maxRest[0] < lo;
+            if (!erschoepft) {
+                erstesVon = untergrenze(0);
+                erstesBis = obergrenze(0) + 1;
+                erschoepft = erstesVon >= erstesBis;
+            }
+        }
+
+        private Suche(Suche parent, int von, int bis) {
+            n = parent.n;
+            element = parent.element;
+            masse = parent.masse;
+            min = parent.min;
+            max = parent.max;
+            minRest = parent.minRest;
+            maxRest = parent.maxRest;
+            lo = parent.lo;
+            hi = parent.hi;
+            erstesVon = von;
+            erstesBis = bis;
+            anzahl = new int[n];
+            obergrenze = new int[n];
+            masseDavor = new double[n + 1];
+        }
+
+        /** Kleinste Anzahl auf Ebene k, mit der das Zielfenster noch erreichbar ist. */
+        private int untergrenze(int k) {
+            double fehlt = lo - masseDavor[k] - maxRest[k + 1];
+            int u = (int) Math.max(min[k], Math.ceil(fehlt / masse[k]));
+            return k == 0 && gestartet ? Math.max(u, erstesVon) : u;
+        }
+
+        /** Größte Anzahl auf Ebene k, mit der das Zielfenster nicht überschritten wird. */
+        private int obergrenze(int k) {
+            double frei = hi - masseDavor[k] - minRest[k + 1];
+            int o = (int) Math.min(max[k], Math.floor(frei / masse[k]));
+            return k == 0 && gestartet ? Math.min(o, erstesBis - 1) : o;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Formula> action) {
+            if (erschoepft) {
+                return false;
+            }
+            int k;
+            boolean erhoehen;
+            if (!gestartet) {
+                gestartet = true;
+                k = 0;
+                erhoehen = false;
+            } else {
+                k = n - 1;
+                erhoehen = true;
+            }
+            while (true) {
+                if (erhoehen) {
+                    while (k >= 0 && anzahl[k] >= obergrenze[k]) {
+                        k--;
+                    }
+                    if (k < 0) {
+                        erschoepft = true;
+                        return false;
+                    }
+                    anzahl[k]++;
+                } else {
+                    int u = untergrenze(k);
+                    int o = obergrenze(k);
+                    if (u > o) {
+                        k--;
+                        if (k < 0) {
+                            erschoepft = true;
+                            return false;
+                        }
+                        erhoehen = true;
+                        continue;
+                    }
+                    anzahl[k] = u;
+                    obergrenze[k] = o;
+                }
+                masseDavor[k + 1] = masseDavor[k] + anzahl[k] * masse[k];
+                if (k == n - 1) {
+                    double m = masseDavor[n];
+                    // m > 0 schließt die leere Formel aus, die bei tolerance >= targetMass im Fenster liegt.
+                    if (m >= lo && m <= hi && m > 0) {
+                        action.accept(formel());
+                        return true;
+                    }
+                    erhoehen = true;
+                } else {
+                    k++;
+                    erhoehen = false;
+                }
+            }
+        }
+
+        private Formula formel() {
+            int[] counts = new int[Formula.VECTOR_LENGTH];
+            for (int i = 0; i < n; i++) {
+                counts[element[i].ordnungsZahl()] = anzahl[i];
+            }
+            return Formula.ofCounts(counts, 0);
+        }
+
+        @Override
+        public Spliterator<Formula> trySplit() {
+            if (gestartet || erschoepft || erstesBis - erstesVon < 2) {
+                return null;
+            }
+            int mitte = (erstesVon + erstesBis) >>> 1;
+            Suche links = new Suche(this, erstesVon, mitte);
+            erstesVon = mitte;
+            return links;
+        }
+
+        @Override
+        public long estimateSize() {
+            return erschoepft ? 0 : Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return NONNULL | IMMUTABLE | DISTINCT;
+        }
+    }
+}
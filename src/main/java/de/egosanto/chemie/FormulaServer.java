@@ -0,0 +1,440 @@
+package de.egosanto.chemie;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import de.egosanto.chemie.utils.Element;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * FormulaServer description:
+ * Eingebetteter HTTP-Dienst auf Basis von {@code com.sun.net.httpserver}, ohne weitere
+ * Abhängigkeiten. Alle Endpunkte erwarten POST mit der Formel bzw. einer Formel pro Zeile
+ * als Text (UTF-8) und antworten mit JSON:
+ * <ul>
+ *     <li>{@code /weight} und {@code /weights}: Molekulargewicht einer bzw. vieler Formeln,</li>
+ *     <li>{@code /composition} und {@code /compositions}: Zusammensetzung, Ladung und Gewicht.</li>
+ * </ul>
+ * <p>
+ * Jede Anfrage läuft in einem eigenen virtuellen Thread, sofern die Laufzeitumgebung
+ * welche anbietet (ab Java 21, per Reflexion erkannt); sonst in einem festen Thread-Pool.
+ * Gleichzeitig laufende Anfragen mit derselben Formel werden zu einer Berechnung
+ * zusammengefasst; bereits zerlegte Formeln hält ein {@link FormulaCache} mit
+ * {@link #DEFAULT_CACHE_SIZE} Einträgen für spätere Anfragen. Zur Lastbegrenzung werden höchstens {@code maxConcurrent} Anfragen
+ * gleichzeitig angenommen, weitere sofort mit 503 und {@code Retry-After} abgewiesen;
+ * zu große Anfragen werden mit 413 abgewiesen. Unerwartete Fehler, auch {@link Error}s,
+ * werden mit 500 beantwortet; zusammengefasste Anfragen warten höchstens
+ * {@value #WARTEZEIT_SEKUNDEN} Sekunden auf die laufende Berechnung.
+ * </p>
+ * <p>
+ * Der JDK-Server schreibt Kopf und Körper getrennt; mit Nagle und verzögertem ACK kostet
+ * das pro Anfrage rund 40 ms. Die Klasse ändert keine JVM-weiten Einstellungen, die
+ * Anwendung sollte daher mit {@code -Dsun.net.httpserver.nodelay=true} starten (bzw. die
+ * Eigenschaft vor dem ersten {@code HttpServer} setzen, wie
+ * {@link MolecularWeightCalculator} im Servermodus).
+ * </p>
+ * Date: 18.10.2026
+ * Project Name: chemie
+ *
+ * @author Toni Zeidler
+ * @see MolecularWeightCalculator
+ */
+public final class FormulaServer implements AutoCloseable {
+
+    /** Standardwert für die Anzahl gleichzeitig angenommener Anfragen. */
+    public static final int DEFAULT_MAX_CONCURRENT = 1024;
+
+    /** Standardwert für die maximale Anzahl Formeln in einer Stapelanfrage. */
+    public static final int DEFAULT_MAX_BATCH = 10_000;
+
+    /** Anzahl der zerlegten Formeln im Cache des Servers. */
+    public static final int DEFAULT_CACHE_SIZE = 10_000;
+
+    /** Maximale Größe eines Anfragekörpers in Bytes. */
+    public static final int MAX_BODY_BYTES = 1 << 20;
+
+    /** Höchstens so lange warten zusammengefasste Anfragen auf die laufende Berechnung. */
+    private static final long WARTEZEIT_SEKUNDEN = 10;
+
+    private static final String JSON = "application/json; charset=utf-8";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ExecutorService abweisung;
+    private final Semaphore permits;
+    private final int maxBatch;
+    private final FormulaCache cache = new FormulaCache(DEFAULT_CACHE_SIZE);
+    private final ConcurrentHashMap<String, CompletableFuture<Formula>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    /** Gesetzt, solange eine Anfrage wegen Überlast ohne Berechnung abgewiesen wird. */
+    private static final ThreadLocal<Boolean> ABGEWIESEN = new ThreadLocal<>();
+
+    /** Threads für Abweisungen; ein langsamer Client blockiert so nicht die Annahme. */
+    private static final int ABWEISUNG_THREADS = 2;
+
+    /**
+     * Erzeugt den Server, ohne ihn zu starten.
+     *
+     * @param address       Adresse und Port, Port 0 für einen freien Port.
+     * @param maxConcurrent Die maximale Anzahl gleichzeitig bearbeiteter Anfragen.
+     * @param maxBatch      Die maximale Anzahl Formeln pro Stapelanfrage.
+     * @throws IOException Wenn der Port nicht gebunden werden kann.
+     */
+    public FormulaServer(InetSocketAddress address, int maxConcurrent, int maxBatch) throws IOException {
+        if (maxConcurrent < 0 || maxBatch < 1) {
+            throw new IllegalArgumentException("Ungültige Grenzen: maxConcurrent=" + maxConcurrent + ", maxBatch=" + maxBatch);
+        }
+        this.permits = new Semaphore(maxConcurrent);
+        this.maxBatch = maxBatch;
+        this.executor = newExecutor(maxConcurrent);
+        this.abweisung = newAbweisung();
+        this.server = HttpServer.create(address, 0);
+        server.setExecutor(new Begrenzung());
+        server.createContext("/weight", new Handler(false, false));
+        server.createContext("/weights", new Handler(true, false));
+        server.createContext("/composition", new Handler(false, true));
+        server.createContext("/compositions", new Handler(true, true));
+    }
+
+    /**
+     * Virtuelle Threads, wenn verfügbar (Java 21+), sonst ein fester Pool aus Daemon-Threads.
+     * Die Warteschlange des Pools ist durch die Semaphore auf {@code maxConcurrent} begrenzt.
+     */
+    private static ExecutorService newExecutor(int maxConcurrent) {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            int threads = Math.max(1, Math.min(maxConcurrent, 4 * Runtime.getRuntime().availableProcessors()));
+            AtomicInteger nummer = new AtomicInteger();
+            return Executors.newFixedThreadPool(threads, r -> {
+                Thread thread = new Thread(r, "formula-server-" + nummer.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Wenige Daemon-Threads für 503-Antworten, die sich nach kurzer Zeit ohne Last beenden.
+     * Die Warteschlange ist unbegrenzt; eine Abweisung liest den Körper nicht und ist schnell.
+     */
+    private static ExecutorService newAbweisung() {
+        AtomicInteger nummer = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(ABWEISUNG_THREADS, ABWEISUNG_THREADS,
+                10, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+                    Thread thread = new Thread(r, "formula-server-abweisung-" + nummer.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    /**
+     * Startet den Server.
+     *
+     * @return Dieser Server.
+     */
+    public FormulaServer start() {
+        server.start();
+        return this;
+    }
+
+    /**
+     * @return Der gebundene Port.
+     */
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stoppt den Server; laufende Anfragen erhalten bis zu einer Sekunde Zeit.
+     */
+    @Override
+    public void close() {
+        stop(1);
+    }
+
+    /**
+     * Stoppt den Server.
+     *
+     * @param delaySeconds Die Zeit in Sekunden, die laufende Anfragen höchstens noch erhalten; 0 stoppt sofort.
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+        abweisung.shutdown();
+        try {
+            executor.awaitTermination(delaySeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return Die Anzahl angenommener Anfragen.
+     */
+    public long requestCount() {
+        return requests.sum();
+    }
+
+    /**
+     * @return Die Anzahl wegen Überlast abgewiesener Anfragen.
+     */
+    public long rejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * @return Die Anzahl Formeln, die das Ergebnis einer gleichzeitig laufenden Berechnung übernommen haben.
+     */
+    public long coalescedCount() {
+        return coalesced.sum();
+    }
+
+    /**
+     * @return Der Cache der zerlegten Formeln, z.B. für Trefferquote und Verdrängungen.
+     */
+    public FormulaCache cache() {
+        return cache;
+    }
+
+    /**
+     * Zerlegt eine Formel über den Cache; läuft dieselbe Formel gerade in einer anderen
+     * Anfrage, wird auf deren Ergebnis gewartet statt erneut zu rechnen.
+     */
+    private Formula parse(String formula) {
+        CompletableFuture<Formula> own = new CompletableFuture<>();
+        CompletableFuture<Formula> existing = inFlight.putIfAbsent(formula, own);
+        if (existing != null) {
+            coalesced.increment();
+            try {
+                return existing.get(WARTEZEIT_SEKUNDEN, TimeUnit.SECONDS);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new IllegalStateException("Berechnung fehlgeschlagen", e.getCause());
+            } catch (TimeoutException e) {
+                throw new IllegalStateException("Keine Antwort der laufenden Berechnung", e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Unterbrochen", e);
+            }
+        }
+        try {
+            Formula result = cache.get(formula);
+            own.complete(result);
+            return result;
+        } catch (Throwable t) {
+            own.completeExceptionally(t);
+            throw t;
+        } finally {
+            inFlight.remove(formula, own);
+            // Wirkungslos, wenn schon abgeschlossen; sonst warten die anderen nie vergeblich.
+            own.completeExceptionally(new IllegalStateException("Berechnung abgebrochen"));
+        }
+    }
+
+    /**
+     * Nimmt Anfragen nur an, solange eine Erlaubnis frei ist. Sonst wird die Anfrage in
+     * {@link #abweisung} ohne Berechnung mit 503 beantwortet; der Annahme-Thread wartet
+     * dabei nie auf den Client.
+     */
+    private final class Begrenzung implements Executor {
+        @Override
+        public void execute(Runnable command) {
+            if (permits.tryAcquire()) {
+                executor.execute(() -> {
+                    try {
+                        command.run();
+                    } finally {
+                        permits.release();
+                    }
+                });
+                return;
+            }
+            rejected.increment();
+            abweisung.execute(() -> {
+                ABGEWIESEN.set(Boolean.TRUE);
+                try {
+                    command.run();
+                } finally {
+                    ABGEWIESEN.remove();
+                }
+            });
+        }
+    }
+
+    private final class Handler implements HttpHandler {
+        private final boolean batch;
+        private final boolean composition;
+
+        Handler(boolean batch, boolean composition) {
+            this.batch = batch;
+            this.composition = composition;
+        }
+
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            try (exchange) {
+                if (ABGEWIESEN.get() != null) {
+                    exchange.getResponseHeaders().set("Retry-After", "1");
+                    send(exchange, 503, "{\"error\":\"Server ausgelastet\"}");
+                    return;
+                }
+                requests.increment();
+                if (!"POST".equals(exchange.getRequestMethod())) {
+                    exchange.getResponseHeaders().set("Allow", "POST");
+                    send(exchange, 405, "{\"error\":\"Nur POST erlaubt\"}");
+                    return;
+                }
+                String body = readBody(exchange.getRequestBody());
+                if (body == null) {
+                    send(exchange, 413, "{\"error\":\"Anfrage größer als " + MAX_BODY_BYTES + " Bytes\"}");
+                    return;
+                }
+                try {
+                    if (batch) {
+                        handleBatch(exchange, body);
+                    } else {
+                        handleSingle(exchange, body.strip());
+                    }
+                } catch (RuntimeException | Error e) {
+                    // Die Antwort wird erst am Ende gesendet, der Status ist also noch frei.
+                    send(exchange, 500, "{\"error\":\"Interner Fehler\"}");
+                }
+            }
+        }
+
+        private void handleSingle(HttpExchange exchange, String formula) throws IOException {
+            StringBuilder json = new StringBuilder(64);
+            try {
+                result(json, formula, parse(formula));
+                send(exchange, 200, json.toString());
+            } catch (FormulaParseException e) {
+                error(json, formula, e);
+                send(exchange, 400, json.toString());
+            }
+        }
+
+        private void handleBatch(HttpExchange exchange, String body) throws IOException {
+            String[] lines = body.split("\r?\n");
+            int count = 0;
+            for (String line : lines) {
+                if (!line.isBlank()) {
+                    count++;
+                }
+            }
+            if (count > maxBatch) {
+                send(exchange, 413, "{\"error\":\"Mehr als " + maxBatch + " Formeln\"}");
+                return;
+            }
+            StringBuilder json = new StringBuilder(count * 48 + 2).append('[');
+            boolean first = true;
+            for (String line : lines) {
+                String formula = line.strip();
+                if (formula.isEmpty()) {
+                    continue;
+                }
+                if (!first) {
+                    json.append(',');
+                }
+                first = false;
+                try {
+                    result(json, formula, parse(formula));
+                } catch (FormulaParseException e) {
+                    error(json, formula, e);
+                }
+            }
+            send(exchange, 200, json.append(']').toString());
+        }
+
+        private void result(StringBuilder json, String formula, Formula parsed) {
+            json.append("{\"formula\":");
+            string(json, formula);
+            json.append(",\"weight\":").append(parsed.molecularWeight());
+            if (composition) {
+                json.append(",\"charge\":").append(parsed.charge()).append(",\"composition\":{");
+                for (int i = 0; i < parsed.elementCount(); i++) {
+                    if (i > 0) {
+                        json.append(',');
+                    }
+                    Element element = parsed.elementAt(i);
+                    json.append('"').append(element.symbol()).append("\":").append(parsed.countAt(i));
+                }
+                json.append('}');
+            }
+            json.append('}');
+        }
+
+        private void error(StringBuilder json, String formula, FormulaParseException e) {
+            json.append("{\"formula\":");
+            string(json, formula);
+            json.append(",\"error\":");
+            string(json, e.getMessage());
+            json.append(",\"position\":").append(e.getPosition()).append('}');
+        }
+    }
+
+    /** Liest den Körper als UTF-8, oder {@code null}, wenn er {@link #MAX_BODY_BYTES} überschreitet. */
+    private static String readBody(InputStream in) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+        byte[] chunk = new byte[8192];
+        int n;
+        while ((n = in.read(chunk)) > 0) {
+            if (buffer.size() + n > MAX_BODY_BYTES) {
+                return null;
+            }
+            buffer.write(chunk, 0, n);
+        }
+        return buffer.toString(StandardCharsets.UTF_8);
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", JSON);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void string(StringBuilder json, String text) {
+        json.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        json.append('"');
+    }
+}
@@ -0,0 +1,207 @@
+package de.egosanto.chemie;
+
+import java.util.Arrays;
+
+/**
+ * IntegerNullSpace description:
+ * Ganzzahliger Nullraum einer dünn besetzten Matrix, berechnet durch bruchfreie
+ * Gauß-Elimination. Jede Zeile speichert nur ihre von 0 verschiedenen Einträge, sortiert
+ * nach Spalte. Eine Eliminationsstufe ersetzt eine Zeile {@code a} durch
+ * {@code p * a - q * pivot} (mit {@code p}, {@code q} durch ihren ggT gekürzt) und teilt das
+ * Ergebnis anschließend durch den ggT seiner Einträge. So entstehen nie Brüche, und die
+ * Zahlen bleiben klein. Als Pivotzeile wird jeweils die mit den wenigsten Einträgen
+ * gewählt, damit die Matrix möglichst dünn bleibt.
+ * <p>
+ * Der Aufwand hängt von der Anzahl der von 0 verschiedenen Einträge ab, nicht von
+ * Zeilen mal Spalten. Bei Reaktionen ist das die Summe der Elementanzahlen der Spezies.
+ * </p>
+ * Date: 18.10.2026
+ * Project Name: chemie
+ *
+ * @author Toni Zeidler
+ * @see Reaction#nullSpace()
+ */
+final class IntegerNullSpace {
+
+    private final int spalten;
+    private Zeile[] zeilen = new Zeile[8];
+    private int anzahl;
+
+    /**
+     * @param spalten Die Anzahl der Spalten (Unbekannten).
+     */
+    IntegerNullSpace(int spalten) {
+        this.spalten = spalten;
+    }
+
+    /**
+     * Fügt eine Zeile hinzu. Sind die Arrays genau {@code laenge} lang, werden sie ohne
+     * Kopie übernommen und dürfen danach nicht mehr verändert werden.
+     *
+     * @param spalte Die Spalten der Einträge, streng aufsteigend.
+     * @param wert   Die Einträge, keiner davon 0.
+     * @param laenge Die Anzahl der Einträge.
+     */
+    void addRow(int[] spalte, long[] wert, int laenge) {
+        if (laenge == 0) {
+            return;
+        }
+        if (anzahl == zeilen.length) {
+            zeilen = Arrays.copyOf(zeilen, anzahl * 2);
+        }
+        if (spalte.length != laenge) {
+            spalte = Arrays.copyOf(spalte, laenge);
+            wert = Arrays.copyOf(wert, laenge);
+        }
+        zeilen[anzahl++] = new Zeile(spalte, wert).gekuerzt();
+    }
+
+    /**
+     * Berechnet eine Basis des Nullraums. Die Zeilen werden dabei in reduzierte
+     * Stufenform gebracht, das Objekt ist danach verbraucht.
+     *
+     * @return Die Basisvektoren, je einer pro freier Spalte, jeweils durch den ggT ihrer
+     * Einträge gekürzt. Ein leeres Array, wenn nur die triviale Lösung existiert.
+     * @throws ArithmeticException Wenn ein Zwischenergebnis nicht in ein {@code long} passt.
+     */
+    long[][] solve() {
+        int[] pivotSpalte = new int[Math.min(anzahl, spalten)];
+        boolean[] istPivot = new boolean[spalten];
+        int rang = 0;
+        for (int s = 0; s < spalten && rang < anzahl; s++) {
+            int beste = -1;
+            for (int r = rang; r < anzahl; r++) {
+                if (zeilen[r].get(s) != 0 && (beste < 0 || zeilen[r].laenge() < zeilen[beste].laenge())) {
+                    beste = r;
+                }
+            }
+            if (beste < 0) {
+                continue;
+            }
+            Zeile pivot = zeilen[beste];
+            zeilen[beste] = zeilen[rang];
+            zeilen[rang] = pivot;
+            long p = pivot.get(s);
+            // Auch die Zeilen oberhalb werden bereinigt: reduzierte Stufenform.
+            for (int r = 0; r < anzahl; r++) {
+                long q = r == rang ? 0 : zeilen[r].get(s);
+                if (q != 0) {
+                    zeilen[r] = zeilen[r].minus(p, q, pivot);
+                }
+            }
+            pivotSpalte[rang++] = s;
+            istPivot[s] = true;
+        }
+
+        long[][] basis = new long[spalten - rang][];
+        for (int f = 0, k = 0; f < spalten; f++) {
+            if (istPivot[f]) {
+                continue;
+            }
+            // x[f] = kgV der betroffenen Pivots, damit alle Pivotvariablen ganzzahlig werden.
+            long kgv = 1;
+            for (int r = 0; r < rang; r++) {
+                if (zeilen[r].get(f) != 0) {
+                    long pivot = Math.abs(zeilen[r].get(pivotSpalte[r]));
+                    kgv = Math.multiplyExact(kgv / ggT(kgv, pivot), pivot);
+                }
+            }
+            long[] x = new long[spalten];
+            x[f] = kgv;
+            for (int r = 0; r < rang; r++) {
+                long a = zeilen[r].get(f);
+                if (a != 0) {
+                    x[pivotSpalte[r]] = Math.multiplyExact(-a, kgv / zeilen[r].get(pivotSpalte[r]));
+                }
+            }
+            long g = 0;
+            for (long v : x) {
+                g = ggT(g, Math.abs(v));
+            }
+            for (int i = 0; i < x.length; i++) {
+                x[i] /= g;
+            }
+            basis[k++] = x;
+        }
+        return basis;
+    }
+
+    static long ggT(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    /** Dünn besetzte Zeile: {@code wert[i]} steht in Spalte {@code spalte[i]}, aufsteigend. */
+    private static final class Zeile {
+        final int[] spalte;
+        final long[] wert;
+
+        Zeile(int[] spalte, long[] wert) {
+            this.spalte = spalte;
+            this.wert = wert;
+        }
+
+        int laenge() {
+            return spalte.length;
+        }
+
+        long get(int s) {
+            int i = Arrays.binarySearch(spalte, s);
+            return i >= 0 ? wert[i] : 0;
+        }
+
+        /** {@code p * this - q * pivot}, gekürzt; der Eintrag in der Pivotspalte fällt weg. */
+        Zeile minus(long p, long q, Zeile pivot) {
+            long g = ggT(Math.abs(p), Math.abs(q));
+            p /= g;
+            q /= g;
+            int[] s = new int[spalte.length + pivot.spalte.length];
+            long[] w = new long[s.length];
+            int n = 0;
+            int i = 0;
+            int j = 0;
+            while (i < spalte.length || j < pivot.spalte.length) {
+                int si = i < spalte.length ? spalte[i] : Integer.MAX_VALUE;
+                int sj = j < pivot.spalte.length ? pivot.spalte[j] : Integer.MAX_VALUE;
+                long v;
+                int sv;
+                if (si < sj) {
+                    sv = si;
+                    v = Math.multiplyExact(p, wert[i++]);
+                } else if (sj < si) {
+                    sv = sj;
+                    v = Math.negateExact(Math.multiplyExact(q, pivot.wert[j++]));
+                } else {
+                    sv = si;
+                    v = Math.subtractExact(Math.multiplyExact(p, wert[i++]), Math.multiplyExact(q, pivot.wert[j++]));
+                }
+                if (v != 0) {
+                    s[n] = sv;
+                    w[n++] = v;
+                }
+            }
+            return new Zeile(Arrays.copyOf(s, n), Arrays.copyOf(w, n)).gekuerzt();
+        }
+
+        /** Teilt durch den ggT aller Einträge. */
+        Zeile gekuerzt() {
+            long g = 0;
+            for (long v : wert) {
+                g = ggT(g, Math.abs(v));
+                if (g == 1) {
+                    return this;
+                }
+            }
+            if (g > 1) {
+                for (int i = 0; i < wert.length; i++) {
+                    wert[i] /= g;
+                }
+            }
+            return this;
+        }
+    }
+}
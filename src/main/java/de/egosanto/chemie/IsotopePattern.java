@@ -0,0 +1,338 @@
+package de.egosanto.chemie;
+
+import de.egosanto.chemie.utils.Element;
+import de.egosanto.chemie.utils.Isotop;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * IsotopePattern description:
+ * Isotopenverteilung einer Formel, wie sie ein Massenspektrometer mittlerer Auflösung
+ * zeigt: ein Peak je Nukleonenzahl (M, M+1, M+2, ...) mit der häufigkeitsgewichteten
+ * mittleren Masse aller Isotopenkombinationen dieser Nukleonenzahl.
+ * <p>
+ * Die Verteilung eines Elements mit n Atomen ist die n-fache Faltung seiner
+ * Isotopenverteilung mit sich selbst. Sie wird durch wiederholtes Quadrieren in
+ * O(log n) Faltungen berechnet; danach werden die Verteilungen der Elemente gefaltet.
+ * Da die Peaks nach Nukleonenzahl zusammengefasst und nach jeder Faltung die Ränder
+ * unterhalb von {@link #PRUNE_THRESHOLD} des größten Peaks abgeschnitten werden, bleiben
+ * die Verteilungen auch für C1000+ bei wenigen Dutzend Einträgen. Eine direkte Faltung
+ * ist bei diesen Längen schneller als eine FFT.
+ * </p>
+ * Date: 18.10.2026
+ * Project Name: chemie
+ *
+ * @author Toni Zeidler
+ * @see Element#isotope()
+ * @see Formula#monoisotopicMass()
+ */
+public final class IsotopePattern {
+
+    /** Standardgrenze für {@link #of(Formula)}: Peaks unter diesem Anteil des größten Peaks entfallen. */
+    public static final double DEFAULT_MIN_RELATIVE_INTENSITY = 1e-4;
+
+    /** Relative Grenze, unterhalb der Randpeaks nach jeder Faltung verworfen werden. */
+    static final double PRUNE_THRESHOLD = 1e-12;
+
+    /** Maximale Anzahl Formeln, die im Stapel ohne weitere Aufteilung berechnet werden. */
+    static final int SCHWELLE = 64;
+
+    private final int[] nominalMasses;
+    private final double[] masses;
+    private final double[] abundances;
+    private final int mostAbundant;
+
+    private IsotopePattern(int[] nominalMasses, double[] masses, double[] abundances) {
+        this.nominalMasses = nominalMasses;
+        this.masses = masses;
+        this.abundances = abundances;
+        int max = 0;
+        for (int i = 1; i < abundances.length; i++) {
+            if (abundances[i] > abundances[max]) {
+                max = i;
+            }
+        }
+        this.mostAbundant = max;
+    }
+
+    /**
+     * Berechnet die Isotopenverteilung mit {@link #DEFAULT_MIN_RELATIVE_INTENSITY}.
+     *
+     * @param formula Die Formel.
+     * @return Die Isotopenverteilung.
+     */
+    public static IsotopePattern of(Formula formula) {
+        return of(formula, DEFAULT_MIN_RELATIVE_INTENSITY);
+    }
+
+    /**
+     * Berechnet die Isotopenverteilung.
+     *
+     * @param formula              Die Formel.
+     * @param minRelativeIntensity Peaks unter diesem Anteil des größten Peaks werden
+     *                             nicht ausgegeben (0 für alle).
+     * @return Die Isotopenverteilung.
+     */
+    public static IsotopePattern of(Formula formula, double minRelativeIntensity) {
+        Verteilung verteilung = Verteilung.EINS;
+        for (int i = 0; i < formula.elementCount(); i++) {
+            verteilung = verteilung.falten(Verteilung.element(formula.elementAt(i)).hoch(formula.countAt(i)));
+        }
+        return verteilung.toPattern(formula.charge(), minRelativeIntensity);
+    }
+
+    /**
+     * Berechnet die Isotopenverteilungen vieler Formeln parallel im gemeinsamen Fork-Join-Pool.
+     *
+     * @param formulas             Die Formeln.
+     * @param minRelativeIntensity Siehe {@link #of(Formula, double)}.
+     * @return Die Verteilungen, {@code result[i]} gehört zu {@code formulas.get(i)}.
+     */
+    public static IsotopePattern[] ofAll(List<Formula> formulas, double minRelativeIntensity) {
+        if (!(formulas instanceof RandomAccess)) {
+            formulas = List.copyOf(formulas);
+        }
+        IsotopePattern[] patterns = new IsotopePattern[formulas.size()];
+        ForkJoinPool.commonPool().invoke(new Task(formulas, patterns, minRelativeIntensity, 0, formulas.size()));
+        return patterns;
+    }
+
+    /**
+     * @return Die Anzahl der Peaks.
+     */
+    public int size() {
+        return masses.length;
+    }
+
+    /**
+     * @param index Index zwischen 0 und {@link #size()} - 1, aufsteigend nach Masse.
+     * @return Die Nukleonenzahl des Peaks.
+     */
+    public int nominalMass(int index) {
+        return nominalMasses[index];
+    }
+
+    /**
+     * @param index Index zwischen 0 und {@link #size()} - 1, aufsteigend nach Masse.
+     * @return Die mittlere exakte Masse des Peaks in u.
+     */
+    public double mass(int index) {
+        return masses[index];
+    }
+
+    /**
+     * @param index Index zwischen 0 und {@link #size()} - 1, aufsteigend nach Masse.
+     * @return Der Anteil des Peaks an allen Molekülen, zwischen 0 und 1.
+     */
+    public double abundance(int index) {
+        return abundances[index];
+    }
+
+    /**
+     * @param index Index zwischen 0 und {@link #size()} - 1, aufsteigend nach Masse.
+     * @return Die Intensität des Peaks relativ zum größten Peak, zwischen 0 und 1.
+     */
+    public double relativeIntensity(int index) {
+        return abundances[index] / abundances[mostAbundant];
+    }
+
+    /**
+     * @return Der Index des größten Peaks.
+     */
+    public int mostAbundantIndex() {
+        return mostAbundant;
+    }
+
+    /**
+     * @return Eine Kopie der Peakmassen, aufsteigend.
+     */
+    public double[] masses() {
+        return masses.clone();
+    }
+
+    /**
+     * @return Eine Kopie der Peakanteile, in der Reihenfolge von {@link #masses()}.
+     */
+    public double[] abundances() {
+        return abundances.clone();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("IsotopePattern[");
+        for (int i = 0; i < masses.length; i++) {
+            if (i > 0) {
+                text.append(", ");
+            }
+            text.append(String.format("%.4f: %.4f", masses[i], relativeIntensity(i)));
+        }
+        return text.append(']').toString();
+    }
+
+    /**
+     * Isotopenverteilung nach Nukleonenzahl: {@code p[j]} ist die Wahrscheinlichkeit der
+     * Nukleonenzahl {@code basis + j}, {@code pm[j]} die Summe Wahrscheinlichkeit mal Masse
+     * aller Kombinationen dieser Nukleonenzahl.
+     */
+    private static final class Verteilung {
+        static final Verteilung EINS = new Verteilung(0, new double[] {1}, new double[] {0});
+
+        /** Verteilung je Element, normiert auf die Summe 1; wird beim ersten Zugriff erzeugt. */
+        private static final Verteilung[] ELEMENTE = new Verteilung[Formula.VECTOR_LENGTH];
+
+        final int basis;
+        final double[] p;
+        final double[] pm;
+
+        Verteilung(int basis, double[] p, double[] pm) {
+            this.basis = basis;
+            this.p = p;
+            this.pm = pm;
+        }
+
+        static Verteilung element(Element element) {
+            Verteilung verteilung = ELEMENTE[element.ordnungsZahl()];
+            if (verteilung == null) {
+                // Mehrfache Berechnung bei gleichzeitigem Zugriff ist harmlos, das Ergebnis ist gleich.
+                List<Isotop> isotope = element.isotope();
+                int basis = isotope.get(0).massenZahl();
+                int laenge = isotope.get(isotope.size() - 1).massenZahl() - basis + 1;
+                double summe = 0;
+                for (Isotop isotop : isotope) {
+                    summe += isotop.haeufigkeit();
+                }
+                double[] p = new double[laenge];
+                double[] pm = new double[laenge];
+                for (Isotop isotop : isotope) {
+                    int j = isotop.massenZahl() - basis;
+                    p[j] = isotop.haeufigkeit() / summe;
+                    pm[j] = p[j] * isotop.masse();
+                }
+                verteilung = new Verteilung(basis, p, pm);
+                ELEMENTE[element.ordnungsZahl()] = verteilung;
+            }
+            return verteilung;
+        }
+
+        /** n-fache Faltung mit sich selbst durch wiederholtes Quadrieren. */
+        Verteilung hoch(int n) {
+            Verteilung ergebnis = EINS;
+            Verteilung quadrat = this;
+            while (n > 0) {
+                if ((n & 1) != 0) {
+                    ergebnis = ergebnis.falten(quadrat);
+                }
+                n >>>= 1;
+                if (n > 0) {
+                    quadrat = quadrat.falten(quadrat);
+                }
+            }
+            return ergebnis;
+        }
+
+        Verteilung falten(Verteilung other) {
+            if (this == EINS) {
+                return other;
+            }
+            int laenge = p.length + other.p.length - 1;
+            double[] q = new double[laenge];
+            double[] qm = new double[laenge];
+            for (int i = 0; i < p.length; i++) {
+                double a = p[i];
+                double am = pm[i];
+                if (a == 0) {
+                    continue;
+                }
+                for (int j = 0; j < other.p.length; j++) {
+                    q[i + j] += a * other.p[j];
+                    qm[i + j] += am * other.p[j] + a * other.pm[j];
+                }
+            }
+            return beschneiden(basis + other.basis, q, qm);
+        }
+
+        /** Schneidet die Ränder unterhalb von {@link #PRUNE_THRESHOLD} des größten Eintrags ab. */
+        private static Verteilung beschneiden(int basis, double[] q, double[] qm) {
+            double max = 0;
+            for (double v : q) {
+                max = Math.max(max, v);
+            }
+            double grenze = max * PRUNE_THRESHOLD;
+            int von = 0;
+            int bis = q.length;
+            while (von < bis - 1 && q[von] < grenze) {
+                von++;
+            }
+            while (bis > von + 1 && q[bis - 1] < grenze) {
+                bis--;
+            }
+            if (von == 0 && bis == q.length) {
+                return new Verteilung(basis, q, qm);
+            }
+            return new Verteilung(basis + von, Arrays.copyOfRange(q, von, bis), Arrays.copyOfRange(qm, von, bis));
+        }
+
+        IsotopePattern toPattern(int charge, double minRelativeIntensity) {
+            double summe = 0;
+            double max = 0;
+            for (double v : p) {
+                summe += v;
+                max = Math.max(max, v);
+            }
+            double grenze = max * minRelativeIntensity;
+            int anzahl = 0;
+            for (double v : p) {
+                if (v > 0 && v >= grenze) {
+                    anzahl++;
+                }
+            }
+            int[] nominal = new int[anzahl];
+            double[] masses = new double[anzahl];
+            double[] abundances = new double[anzahl];
+            double elektronen = charge * Formula.ELECTRON_MASS;
+            for (int j = 0, k = 0; j < p.length; j++) {
+                if (p[j] > 0 && p[j] >= grenze) {
+                    nominal[k] = basis + j;
+                    masses[k] = pm[j] / p[j] - elektronen;
+                    abundances[k] = p[j] / summe;
+                    k++;
+                }
+            }
+            return new IsotopePattern(nominal, masses, abundances);
+        }
+    }
+
+    private static final class Task extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Formula> formulas;
+        private final IsotopePattern[] patterns;
+        private final double minRelativeIntensity;
+        private final int from;
+        private final int to;
+
+        Task(List<Formula> formulas, IsotopePattern[] patterns, double minRelativeIntensity, int from, int to) {
+            this.formulas = formulas;
+            this.patterns = patterns;
+            this.minRelativeIntensity = minRelativeIntensity;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SCHWELLE) {
+                for (int i = from; i < to; i++) {
+                    patterns[i] = of(formulas.get(i), minRelativeIntensity);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Task(formulas, patterns, minRelativeIntensity, from, mid),
+                    new Task(formulas, patterns, minRelativeIntensity, mid, to));
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package de.egosanto.chemie;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * LatencyHistogram description:
+ * Sperrfreies Histogramm für nicht-negative {@code long}-Werte wie Laufzeiten in
+ * Nanosekunden, nach dem Vorbild von HdrHistogram: Jede Zweierpotenz wird in 16 gleich
+ * breite Fächer geteilt, der relative Fehler eines gemeldeten Werts liegt also unter
+ * 6,25 %, bei festen 960 Fächern für den ganzen {@code long}-Bereich. Werte unter 16
+ * werden exakt gezählt.
+ * <p>
+ * {@link #record(long)} ist ein einziges atomares Inkrement; Auswertungen laufen über alle
+ * Fächer und sehen gleichzeitige Aufzeichnungen eventuell nur teilweise.
+ * </p>
+ * Date: 18.10.2026
+ * Project Name: chemie
+ *
+ * @author Toni Zeidler
+ * @see FormulaMetrics
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BITS = 4;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int SIZE = (64 - SUB_BITS) * SUB_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(SIZE);
+
+    /**
+     * Zählt einen Wert; negative Werte werden als 0 gezählt.
+     *
+     * @param value Der Wert.
+     */
+    public void record(long value) {
+        counts.getAndIncrement(index(value));
+    }
+
+    static int index(long value) {
+        if (value < SUB_COUNT) {
+            return value <= 0 ? 0 : (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_COUNT - 1);
+        return (exponent - SUB_BITS + 1) * SUB_COUNT + sub;
+    }
+
+    /** Größter Wert, der in das Fach {@code index} fällt. */
+    static long highestValue(int index) {
+        if (index < SUB_COUNT) {
+            return index;
+        }
+        int exponent = index / SUB_COUNT + SUB_BITS - 1;
+        long sub = SUB_COUNT + index % SUB_COUNT;
+        long lowest = sub << (exponent - SUB_BITS);
+        return lowest + (1L << (exponent - SUB_BITS)) - 1;
+    }
+
+    /**
+     * @return Die Anzahl gezählter Werte.
+     */
+    public long count() {
+        long total = 0;
+        for (int i = 0; i < SIZE; i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Gibt den Wert zurück, unter oder auf dem {@code percentile} Prozent aller Werte liegen,
+     * als obere Grenze seines Fachs.
+     *
+     * @param percentile Zwischen 0 und 100, z.B. 99.0.
+     * @return Der Wert, oder 0 wenn noch nichts gezählt wurde.
+     */
+    public long valueAtPercentile(double percentile) {
+        long[] snapshot = new long[SIZE];
+        long total = 0;
+        for (int i = 0; i < SIZE; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(Math.min(percentile, 100.0) / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < SIZE; i++) {
+            seen += snapshot[i];
+            if (seen >= target) {
+                return highestValue(i);
+            }
+        }
+        return highestValue(SIZE - 1);
+    }
+
+    /**
+     * @return Die obere Grenze des höchsten belegten Fachs, 0 wenn noch nichts gezählt wurde.
+     */
+    public long max() {
+        for (int i = SIZE - 1; i >= 0; i--) {
+            if (counts.get(i) != 0) {
+                return highestValue(i);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return Der Mittelwert, berechnet aus den Fachmitten; 0 wenn noch nichts gezählt wurde.
+     */
+    public double mean() {
+        double sum = 0;
+        long total = 0;
+        for (int i = 0; i < SIZE; i++) {
+            long n = counts.get(i);
+            if (n != 0) {
+                long high = highestValue(i);
+                long low = i == 0 ? 0 : highestValue(i - 1) + 1;
+                sum += n * ((low + high) / 2.0);
+                total += n;
+            }
+        }
+        return total == 0 ? 0 : sum / total;
+    }
+
+    /**
+     * Setzt alle Fächer auf 0.
+     */
+    public void reset() {
+        for (int i = 0; i < SIZE; i++) {
+            counts.set(i, 0);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package de.egosanto.chemie;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * MolecularWeightBatch description:
+ * Stapelberechnung der Molekulargewichte für große Formelsammlungen. Die Liste wird
+ * im Fork-Join-Verfahren so lange halbiert, bis ein Teilstück höchstens
+ * {@link #SCHWELLE} Formeln enthält; jedes Teilstück wird dann sequentiell berechnet
+ * und schreibt direkt in seinen Bereich des Ergebnis-Arrays. Fehler werden pro
+ * Teilstück gesammelt und erst am Ende zusammengeführt.
+ * Date: 18.10.2026
+ * Project Name: chemie
+ *
+ * @author Toni Zeidler
+ * @see MolecularWeightCalculator#calculateMolecularWeightsParallel(List, double[], ForkJoinPool)
+ */
+final class MolecularWeightBatch {
+
+    /** Maximale Anzahl Formeln, die ohne weitere Aufteilung sequentiell berechnet werden. */
+    static final int SCHWELLE = 1024;
+
+    private MolecularWeightBatch() {
+    }
+
+    static BatchResult sequential(List<? extends CharSequence> formulas, double[] weights) {
+        formulas = randomAccess(formulas);
+        checkLength(formulas, weights);
+        List<BatchResult.Failure> failures = new ArrayList<>();
+        compute(formulas, weights, 0, formulas.size(), failures);
+        return new BatchResult(formulas.size(), failures);
+    }
+
+    static BatchResult parallel(List<? extends CharSequence> formulas, double[] weights, ForkJoinPool pool) {
+        formulas = randomAccess(formulas);
+        checkLength(formulas, weights);
+        Task task = new Task(formulas, weights, 0, formulas.size());
+        pool.invoke(task);
+        // Teilergebnisse werden links vor rechts zusammengeführt, bleiben also nach Index sortiert.
+        return new BatchResult(formulas.size(), task.failures);
+    }
+
+    private static void compute(List<? extends CharSequence> formulas, double[] weights, int from, int to,
+                                List<BatchResult.Failure> failures) {
+        for (int i = from; i < to; i++) {
+            CharSequence formula = formulas.get(i);
+            try {
+                weights[i] = FormulaParser.molecularWeight(formula);
+            } catch (RuntimeException e) {
+                weights[i] = Double.NaN;
+                failures.add(new BatchResult.Failure(i, formula, e));
+            }
+        }
+    }
+
+    /** Kopiert z.B. eine {@code LinkedList}, damit der Zugriff per Index nicht quadratisch wird. */
+    private static List<? extends CharSequence> randomAccess(List<? extends CharSequence> formulas) {
+        return formulas instanceof RandomAccess ? formulas : new ArrayList<>(formulas);
+    }
+
+    private static void checkLength(List<? extends CharSequence> formulas, double[] weights) {
+        if (weights.length < formulas.size()) {
+            throw new IllegalArgumentException("Ergebnis-Array zu kurz: " + weights.length + " < " + formulas.size());
+        }
+    }
+
+    private static final class Task extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<? extends CharSequence> formulas;
+        private final double[] weights;
+        private final int from;
+        private final int to;
+        private List<BatchResult.Failure> failures = new ArrayList<>(0);
+
+        Task(List<? extends CharSequence> formulas, double[] weights, int from, int to) {
+            this.formulas = formulas;
+            this.weights = weights;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SCHWELLE) {
+                MolecularWeightBatch.compute(formulas, weights, from, to, failures);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            Task left = new Task(formulas, weights, from, mid);
+            Task right = new Task(formulas, weights, mid, to);
+            invokeAll(left, right);
+            if (left.failures.isEmpty()) {
+                failures = right.failures;
+            } else {
+                failures = left.failures;
+                failures.addAll(right.failures);
+            }
+        }
+    }
+}
@@ -1,9 +1,14 @@
 package de.egosanto.chemie;
 
-import de.egosanto.chemie.utils.Element;
-import java.util.Scanner;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * MolecularWeightCalculator description:
@@ -16,55 +21,287 @@ import java.util.regex.Pattern;
  */
 public class MolecularWeightCalculator {
 
+    private static final String USAGE = "Verwendung: MolecularWeightCalculator [--input <datei> --output <datei>"
+            + " [--column <n>] [--delimiter <z>] [--header] [--threads <n>] | --server <port>]";
+
     /**
      * Berechnet das Molekulargewicht einer gegebenen chemischen Formel.
      * <p>
      * Die Funktion interpretiert eine chemische Formel (z.B. "H2O" für Wasser) und
      * berechnet das Gesamtgewicht basierend auf den atomaren Gewichten der enthaltenen
-     * Elemente. Die chemischen Elemente sollten als Enums mit einer Methode atomGewicht()
-     * definiert sein, die das atomare Gewicht des Elements zurückgibt.
+     * Elemente. Die Formel wird mit derselben Grammatik wie {@link Formula#parse(CharSequence)}
+     * gelesen, allerdings ohne eine {@code Formula} zu erzeugen: das Gewicht wird in einem
+     * einzigen Durchlauf aufsummiert, ohne pro Aufruf Objekte anzulegen.
      * </p>
      *
      * @param formula Die chemische Formel als Zeichenkette, z.B. "H2O", "C6H12O6", usw.
      *                Die Formel sollte den Elementsymbolen folgen, optional gefolgt von
      *                einer Zahl, die die Anzahl der Atome dieses Elements im Molekül angibt.
      *                Wenn keine Zahl vorhanden ist, wird angenommen, dass das Element nur
-     *                einmal vorkommt.
+     *                einmal vorkommt. Klammergruppen ("Ca(OH)2", "[Fe(CN)6]^4-"), Hydrate
+     *                ("CuSO4·5H2O") und Ladungen werden unterstützt; die Ladung hat keinen
+     *                Einfluss auf das Gewicht.
      *
      * @return Das berechnete Molekulargewicht der gegebenen Formel.
      *
-     * @throws IllegalArgumentException Wenn ein unbekanntes Elementsymbol in der Formel
-     *                                  gefunden wird oder wenn die Formel nicht dem erwarteten
-     *                                  Muster entspricht.
+     * @throws FormulaParseException Wenn ein unbekanntes Elementsymbol in der Formel
+     *                               gefunden wird oder wenn die Formel nicht dem erwarteten
+     *                               Muster entspricht. Die Ausnahme enthält die Position
+     *                               des fehlerhaften Zeichens.
+     */
+    public static double calculateMolecularWeight(CharSequence formula) {
+        return FormulaParser.molecularWeight(formula);
+    }
+
+    /**
+     * Berechnet das Molekulargewicht einer Formel wie {@link #calculateMolecularWeight(CharSequence)}.
+     * Die Überladung erhält die Binärkompatibilität mit Code, der gegen die frühere
+     * Signatur mit {@code String} übersetzt wurde.
+     * <p>
+     * Anders als die frühere Implementierung ist die Grammatik streng: eine leere Formel
+     * oder Zeichen, die bisher übersprungen wurden, führen zu einer
+     * {@link FormulaParseException} statt zum Gewicht 0 bzw. werden nicht mehr ignoriert.
+     * </p>
+     *
+     * @param formula Die chemische Formel, z.B. "H2O".
+     * @return Das berechnete Molekulargewicht der gegebenen Formel.
+     * @throws FormulaParseException Wenn die Formel leer ist oder nicht dem erwarteten Muster entspricht.
      */
     public static double calculateMolecularWeight(String formula) {
-        double totalWeight = 0;
+        return FormulaParser.molecularWeight(formula);
+    }
 
-        Pattern pattern = Pattern.compile("([A-Z][a-z]*)(\\d*)");
-        Matcher matcher = pattern.matcher(formula);
+    /**
+     * Berechnet das Molekulargewicht einer Formel, die in einem Ausschnitt eines
+     * {@code char[]} steht, ohne dafür einen String anzulegen.
+     *
+     * @param formula Das Array, das die Formel enthält.
+     * @param offset  Der Index des ersten Zeichens der Formel.
+     * @param length  Die Anzahl der Zeichen der Formel.
+     * @return Das berechnete Molekulargewicht der Formel.
+     * @throws FormulaParseException Wenn die Formel nicht dem erwarteten Muster entspricht.
+     * @see #calculateMolecularWeight(CharSequence)
+     */
+    public static double calculateMolecularWeight(char[] formula, int offset, int length) {
+        return FormulaParser.molecularWeight(formula, offset, length);
+    }
 
-        while (matcher.find()) {
-            String elementSymbol = matcher.group(1);
-            String number = matcher.group(2);
+    /**
+     * Berechnet das Molekulargewicht einer ASCII-kodierten Formel, die in einem Ausschnitt
+     * eines {@code byte[]} steht, z.B. direkt aus einem Lesepuffer.
+     *
+     * @param formula Das Array, das die Formel enthält.
+     * @param offset  Der Index des ersten Bytes der Formel.
+     * @param length  Die Anzahl der Bytes der Formel.
+     * @return Das berechnete Molekulargewicht der Formel.
+     * @throws FormulaParseException Wenn die Formel nicht dem erwarteten Muster entspricht.
+     * @see #calculateMolecularWeight(CharSequence)
+     */
+    public static double calculateMolecularWeight(byte[] formula, int offset, int length) {
+        return FormulaParser.molecularWeight(formula, offset, length);
+    }
 
-            int count = 1;
-            if (!number.isEmpty()) {
-                count = Integer.parseInt(number);
-            }
+    /**
+     * Berechnet das Molekulargewicht einer ASCII-kodierten Formel im Bereich
+     * {@code [offset, offset + length)} eines {@link ByteBuffer}, z.B. direkt aus einer in den
+     * Speicher abgebildeten Datei. Position und Limit des Puffers bleiben unverändert.
+     *
+     * @param formula Der Puffer, der die Formel enthält.
+     * @param offset  Der absolute Index des ersten Bytes der Formel.
+     * @param length  Die Anzahl der Bytes der Formel.
+     * @return Das berechnete Molekulargewicht der Formel.
+     * @throws FormulaParseException Wenn die Formel nicht dem erwarteten Muster entspricht.
+     * @see #calculateMolecularWeight(CharSequence)
+     */
+    public static double calculateMolecularWeight(ByteBuffer formula, int offset, int length) {
+        return FormulaParser.molecularWeight(formula, offset, length);
+    }
 
-            Element element = Element.valueOf(elementSymbol);
-            totalWeight += element.atomGewicht() * count;
-        }
+    /**
+     * Berechnet die Molekulargewichte eines ganzen Stapels von Formeln nacheinander.
+     * <p>
+     * Eine fehlerhafte Formel bricht den Stapel nicht ab: ihr Gewicht wird auf
+     * {@link Double#NaN} gesetzt und der Fehler im Ergebnis vermerkt.
+     * </p>
+     *
+     * @param formulas Die Formeln.
+     * @param weights  Das Ergebnis-Array; {@code weights[i]} erhält das Gewicht von
+     *                 {@code formulas.get(i)}. Es muss mindestens so lang sein wie die Liste.
+     * @return Die Fehler der Berechnung.
+     * @throws IllegalArgumentException Wenn {@code weights} zu kurz ist.
+     */
+    public static BatchResult calculateMolecularWeights(List<? extends CharSequence> formulas, double[] weights) {
+        return MolecularWeightBatch.sequential(formulas, weights);
+    }
+
+    /**
+     * @see #calculateMolecularWeights(List, double[])
+     */
+    public static BatchResult calculateMolecularWeights(CharSequence[] formulas, double[] weights) {
+        return MolecularWeightBatch.sequential(Arrays.asList(formulas), weights);
+    }
+
+    /**
+     * Berechnet die Molekulargewichte eines Stapels parallel im gemeinsamen
+     * {@link ForkJoinPool#commonPool()}.
+     *
+     * @see #calculateMolecularWeightsParallel(List, double[], ForkJoinPool)
+     */
+    public static BatchResult calculateMolecularWeightsParallel(List<? extends CharSequence> formulas, double[] weights) {
+        return MolecularWeightBatch.parallel(formulas, weights, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Berechnet die Molekulargewichte eines Stapels parallel im angegebenen Pool. Der Stapel
+     * wird rekursiv in Teilstücke zerlegt, die auf alle Threads des Pools verteilt werden.
+     * Ergebnis und Fehlerbehandlung entsprechen {@link #calculateMolecularWeights(List, double[])}.
+     *
+     * @param formulas Die Formeln.
+     * @param weights  Das Ergebnis-Array, mindestens so lang wie die Liste.
+     * @param pool     Der Pool, dessen Parallelität die Anzahl der Threads bestimmt.
+     * @return Die Fehler der Berechnung, nach Index sortiert.
+     * @throws IllegalArgumentException Wenn {@code weights} zu kurz ist.
+     */
+    public static BatchResult calculateMolecularWeightsParallel(List<? extends CharSequence> formulas, double[] weights,
+                                                                ForkJoinPool pool) {
+        return MolecularWeightBatch.parallel(formulas, weights, pool);
+    }
 
-        return totalWeight;
+    /**
+     * @see #calculateMolecularWeightsParallel(List, double[])
+     */
+    public static BatchResult calculateMolecularWeightsParallel(CharSequence[] formulas, double[] weights) {
+        return MolecularWeightBatch.parallel(Arrays.asList(formulas), weights, ForkJoinPool.commonPool());
     }
 
-    public static void main(String[] args) {
-        Scanner scanner = new Scanner(System.in);
+    /**
+     * Ohne Argumente wird eine Formel von der Konsole gelesen und ihr Gewicht ausgegeben.
+     * <p>
+     * Mit {@code --input <datei> --output <datei>} wird stattdessen eine ganze Datei
+     * verarbeitet (siehe {@link FormulaFileProcessor}). Weitere Optionen:
+     * {@code --column <n>} (0-basierte CSV-Spalte mit der Formel), {@code --delimiter <z>},
+     * {@code --header} (erste Zeile ist eine Kopfzeile) und {@code --threads <n>}.
+     * </p>
+     *
+     * @param args Die Kommandozeilenargumente.
+     * @throws IOException Wenn eine Datei nicht gelesen oder geschrieben werden kann.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("--server")) {
+            serve(args);
+            return;
+        }
+        if (args.length > 0) {
+            processFile(args);
+            return;
+        }
+        // BufferedReader statt Scanner: Scanner lädt beim Start die Regex-Klassen.
+        BufferedReader reader = new BufferedReader(new InputStreamReader(System.in));
         System.out.print("Geben Sie die chemische Formel ein: ");
-        String formula = scanner.nextLine();
+        String formula = reader.readLine();
+        if (formula == null) {
+            return;
+        }
 
         double weight = calculateMolecularWeight(formula);
-        System.out.printf("Molekulare Masse von %s: %.4f g/mol%n", formula, weight);
+        // Ohne "+": die String-Verkettung über invokedynamic erzeugt beim ersten Aufruf
+        // LambdaForm-Klassen.
+        System.out.println(new StringBuilder(64).append("Molekulare Masse von ").append(formula)
+                .append(": ").append(festkomma(weight, 4)).append(" g/mol"));
+    }
+
+    private static void serve(String[] args) throws IOException {
+        int port = Integer.parseInt(argument(args, 1));
+        // Ohne TCP_NODELAY kosten Nagle und verzögertes ACK rund 40 ms pro Anfrage. Die
+        // Eigenschaft gilt JVM-weit und wird beim ersten HttpServer gelesen; als eigenständige
+        // Anwendung darf der Servermodus sie setzen, eine Angabe per -D hat Vorrang.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        FormulaServer server = new FormulaServer(new InetSocketAddress(port),
+                FormulaServer.DEFAULT_MAX_CONCURRENT, FormulaServer.DEFAULT_MAX_BATCH).start();
+        System.out.println("Server läuft auf Port " + server.port());
+    }
+
+    private static void processFile(String[] args) throws IOException {
+        Path input = null;
+        Path output = null;
+        int column = -1;
+        char delimiter = ',';
+        boolean header = false;
+        int threads = 1;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--input":
+                    input = Path.of(argument(args, ++i));
+                    break;
+                case "--output":
+                    output = Path.of(argument(args, ++i));
+                    break;
+                case "--column":
+                    column = Integer.parseInt(argument(args, ++i));
+                    break;
+                case "--delimiter":
+                    delimiter = argument(args, ++i).charAt(0);
+                    break;
+                case "--header":
+                    header = true;
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(argument(args, ++i));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unbekannte Option: " + args[i] + System.lineSeparator() + USAGE);
+            }
+        }
+        if (input == null || output == null) {
+            throw new IllegalArgumentException("--input und --output sind erforderlich" + System.lineSeparator() + USAGE);
+        }
+
+        long start = System.nanoTime();
+        FormulaFileProcessor.Summary summary = new FormulaFileProcessor(column, delimiter, header, threads)
+                .process(input, output);
+        for (String message : summary.messages()) {
+            System.err.println(message);
+        }
+        System.out.println(summary.lines() + " Zeilen verarbeitet, " + summary.failures() + " fehlerhaft, "
+                + festkomma((System.nanoTime() - start) / 1e9, 1) + " s");
+    }
+
+    /**
+     * Formatiert {@code value} mit {@code stellen} Nachkommastellen (kaufmännisch gerundet).
+     * Bewusst ohne {@code printf}: {@link java.util.Formatter} lädt beim Start die
+     * Regex-Klassen und Lambdas und kostet etwa 30 ms.
+     */
+    static String festkomma(double value, int stellen) {
+        long faktor = 1;
+        for (int i = 0; i < stellen; i++) {
+            faktor *= 10;
+        }
+        if (Double.isNaN(value) || Double.isInfinite(value) || Math.abs(value) >= 1e14) {
+            return Double.toString(value);
+        }
+        long scaled = Math.round(Math.abs(value) * faktor);
+        StringBuilder text = new StringBuilder(24);
+        if (value < 0 && scaled != 0) {
+            text.append('-');
+        }
+        text.append(scaled / faktor);
+        if (stellen > 0) {
+            text.append('.');
+            String rest = Long.toString(scaled % faktor);
+            for (int i = rest.length(); i < stellen; i++) {
+                text.append('0');
+            }
+            text.append(rest);
+        }
+        return text.toString();
+    }
+
+    private static String argument(String[] args, int index) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Wert für " + args[index - 1] + " fehlt" + System.lineSeparator() + USAGE);
+        }
+        return args[index];
     }
 }
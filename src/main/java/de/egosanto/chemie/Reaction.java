@@ -0,0 +1,478 @@
+package de.egosanto.chemie;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Reaction description:
+ * Unveränderliche Reaktionsgleichung aus Edukten und Produkten mit ganzzahligen
+ * Koeffizienten, z.B. "C3H8 + 5 O2 -> 3 CO2 + 4 H2O".
+ * <p>
+ * {@link #balance()} bestimmt die Koeffizienten. Jede Spezies ist eine Spalte, jedes
+ * vorkommende Element (und bei Ionen die Ladung) eine Zeile. Die Einträge sind die
+ * Anzahlen aus {@link Formula}, bei Produkten negativ. Die Koeffizienten sind der
+ * ganzzahlige Nullraum dieser Matrix. Er wird dünn besetzt und bruchfrei berechnet
+ * (siehe {@link IntegerNullSpace}), so bleiben auch Reaktionsnetze mit Hunderten Spezies
+ * schnell und exakt.
+ * </p>
+ * <p>
+ * Die Massenbilanz ({@link #reactantMass()}, {@link #productMass()},
+ * {@link #massDifference()}) wird exakt über {@link ExactMass} summiert; für eine
+ * ausgeglichene Reaktion ist die Differenz genau 0.
+ * </p>
+ * Date: 18.10.2026
+ * Project Name: chemie
+ *
+ * @author Toni Zeidler
+ * @see Formula
+ */
+public final class Reaction {
+
+    /** Maximale Anzahl Reaktionen, die im Stapel ohne weitere Aufteilung ausgeglichen werden. */
+    static final int SCHWELLE = 64;
+
+    /** Reaktionspfeile, längere zuerst, damit "<=>" nicht als "=" erkannt wird. */
+    private static final String[] PFEILE = {"<=>", "<->", "->", "→", "⇌", "="};
+
+    private final String[] names;
+    private final Formula[] species;
+    private final long[] coefficients;
+    private final int reactantCount;
+
+    private Reaction(String[] names, Formula[] species, long[] coefficients, int reactantCount) {
+        this.names = names;
+        this.species = species;
+        this.coefficients = coefficients;
+        this.reactantCount = reactantCount;
+    }
+
+    /**
+     * Zerlegt eine Reaktionsgleichung. Die Seiten werden durch "->", "=", "<=>", "<->",
+     * "→" oder "⇌" getrennt, die Spezies durch '+'. Ein '+', auf das (nach Leerzeichen)
+     * ein weiteres '+' oder das Ende folgt, gehört als Ladung zur Formel: "Fe3+ + Cl-".
+     * Vor jeder Formel darf ein Koeffizient stehen ("2 H2O" oder "2H2O"), sonst gilt 1.
+     * Ladungen folgen {@link Formula#parse(CharSequence)}: mehratomige Ionen brauchen ein
+     * '^', z.B. "MnO4^-"; "MnO4-" wird als mehrdeutig abgelehnt.
+     *
+     * @param reaction Die Reaktionsgleichung.
+     * @return Die Reaktion mit den angegebenen Koeffizienten.
+     * @throws FormulaParseException Wenn Pfeil, Spezies oder eine Formel fehlerhaft sind.
+     */
+    public static Reaction parse(CharSequence reaction) {
+        String text = reaction.toString();
+        int pfeil = -1;
+        int pfeilLaenge = 0;
+        for (String p : PFEILE) {
+            pfeil = text.indexOf(p);
+            if (pfeil >= 0) {
+                pfeilLaenge = p.length();
+                break;
+            }
+        }
+        if (pfeil < 0) {
+            throw new FormulaParseException("Reaktionspfeil fehlt", text, 0);
+        }
+        List<String> names = new ArrayList<>();
+        List<Formula> species = new ArrayList<>();
+        List<Long> coefficients = new ArrayList<>();
+        seite(text, 0, pfeil, names, species, coefficients);
+        int reactantCount = names.size();
+        seite(text, pfeil + pfeilLaenge, text.length(), names, species, coefficients);
+        long[] k = new long[coefficients.size()];
+        for (int i = 0; i < k.length; i++) {
+            k[i] = coefficients.get(i);
+        }
+        return new Reaction(names.toArray(new String[0]), species.toArray(new Formula[0]), k, reactantCount);
+    }
+
+    private static void seite(String text, int von, int bis, List<String> names, List<Formula> species,
+                              List<Long> coefficients) {
+        int start = von;
+        for (int i = von; i <= bis; i++) {
+            if (i < bis && (text.charAt(i) != '+' || !trennt(text, i + 1, bis))) {
+                continue;
+            }
+            spezies(text, start, i, names, species, coefficients);
+            start = i + 1;
+        }
+    }
+
+    /** Ein '+' trennt Spezies, wenn danach noch etwas anderes als '+' folgt. */
+    private static boolean trennt(String text, int von, int bis) {
+        for (int i = von; i < bis; i++) {
+            char c = text.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                return c != '+';
+            }
+        }
+        return false;
+    }
+
+    private static void spezies(String text, int von, int bis, List<String> names, List<Formula> species,
+                                List<Long> coefficients) {
+        while (von < bis && Character.isWhitespace(text.charAt(von))) {
+            von++;
+        }
+        while (bis > von && Character.isWhitespace(text.charAt(bis - 1))) {
+            bis--;
+        }
+        long koeffizient = 1;
+        int formel = von;
+        if (formel < bis && Character.isDigit(text.charAt(formel))) {
+            koeffizient = 0;
+            while (formel < bis && Character.isDigit(text.charAt(formel))) {
+                if (koeffizient > (Integer.MAX_VALUE - 9) / 10) {
+                    throw new FormulaParseException("Koeffizient zu groß", text, von);
+                }
+                koeffizient = koeffizient * 10 + (text.charAt(formel++) - '0');
+            }
+            if (koeffizient == 0) {
+                throw new FormulaParseException("Koeffizient 0", text, von);
+            }
+            while (formel < bis && Character.isWhitespace(text.charAt(formel))) {
+                formel++;
+            }
+        }
+        if (formel == bis) {
+            throw new FormulaParseException("Spezies fehlt", text, von);
+        }
+        String name = text.substring(formel, bis);
+        try {
+            species.add(Formula.parse(name));
+        } catch (FormulaParseException e) {
+            FormulaParseException fehler = new FormulaParseException(
+                    "Fehlerhafte Formel \"" + name + "\"", text, formel + e.getPosition());
+            fehler.initCause(e);
+            throw fehler;
+        }
+        names.add(name);
+        coefficients.add(koeffizient);
+    }
+
+    /**
+     * Erzeugt eine Reaktion aus bereits zerlegten Formeln, alle Koeffizienten sind 1.
+     *
+     * @param reactants Die Edukte.
+     * @param products  Die Produkte.
+     * @return Die Reaktion.
+     */
+    public static Reaction of(List<Formula> reactants, List<Formula> products) {
+        int n = reactants.size() + products.size();
+        String[] names = new String[n];
+        Formula[] species = new Formula[n];
+        int i = 0;
+        for (Formula f : reactants) {
+            species[i] = f;
+            names[i++] = f.toString();
+        }
+        for (Formula f : products) {
+            species[i] = f;
+            names[i++] = f.toString();
+        }
+        long[] coefficients = new long[n];
+        Arrays.fill(coefficients, 1);
+        return new Reaction(names, species, coefficients, reactants.size());
+    }
+
+    /**
+     * Gleicht eine Reaktionsgleichung aus.
+     *
+     * @param reaction Die Reaktionsgleichung, Koeffizienten darin werden ignoriert.
+     * @return Die ausgeglichene Reaktion.
+     * @throws FormulaParseException    Wenn die Gleichung fehlerhaft ist.
+     * @throws IllegalArgumentException Wenn sie sich nicht eindeutig ausgleichen lässt.
+     * @see #balance()
+     */
+    public static Reaction balance(CharSequence reaction) {
+        return parse(reaction).balance();
+    }
+
+    /**
+     * Bestimmt die kleinsten positiven ganzzahligen Koeffizienten, mit denen auf beiden
+     * Seiten jedes Element gleich oft vorkommt und die Ladung gleich ist.
+     *
+     * @return Die ausgeglichene Reaktion.
+     * @throws IllegalArgumentException Wenn es keine, keine eindeutige oder nur eine Lösung
+     *                                  mit nicht positiven Koeffizienten gibt.
+     * @throws ArithmeticException      Wenn ein Koeffizient nicht in ein {@code long} passt.
+     */
+    public Reaction balance() {
+        long[][] basis = nullSpace();
+        if (basis.length == 0) {
+            throw new IllegalArgumentException("Reaktion lässt sich nicht ausgleichen: " + this);
+        }
+        if (basis.length > 1) {
+            throw new IllegalArgumentException("Reaktion hat " + basis.length
+                    + " unabhängige Lösungen und lässt sich nicht eindeutig ausgleichen: " + this);
+        }
+        long[] x = basis[0];
+        long vorzeichen = Long.signum(x[0]);
+        for (int i = 0; i < x.length; i++) {
+            x[i] *= vorzeichen;
+            if (x[i] <= 0) {
+                throw new IllegalArgumentException("\"" + names[i] + "\" steht auf der falschen Seite oder "
+                        + "nimmt nicht an der Reaktion teil: " + this);
+            }
+        }
+        return new Reaction(names, species, x, reactantCount);
+    }
+
+    /**
+     * Berechnet eine ganzzahlige Basis aller Koeffizientenvektoren, mit denen die Reaktion
+     * ausgeglichen ist. Koeffizienten können dabei negativ sein (Spezies auf der anderen
+     * Seite). Für Reaktionsnetze mit mehreren unabhängigen Teilreaktionen hat die Basis
+     * mehr als einen Vektor.
+     *
+     * @return Die Basisvektoren, {@code result[k][i]} gehört zu Spezies {@code i}.
+     * @throws ArithmeticException Wenn ein Zwischenergebnis nicht in ein {@code long} passt.
+     */
+    public long[][] nullSpace() {
+        int n = species.length;
+        // Zeilen sind die vorkommenden Elemente; erst zählen, dann die Spalten aufsteigend füllen.
+        int[] laenge = new int[Formula.VECTOR_LENGTH];
+        boolean geladen = false;
+        for (Formula f : species) {
+            for (int e = 0; e < f.elementCount(); e++) {
+                laenge[f.elementAt(e).ordnungsZahl()]++;
+            }
+            geladen |= f.charge() != 0;
+        }
+        int[][] spalte = new int[Formula.VECTOR_LENGTH][];
+        long[][] wert = new long[Formula.VECTOR_LENGTH][];
+        for (int z = 1; z < Formula.VECTOR_LENGTH; z++) {
+            if (laenge[z] != 0) {
+                spalte[z] = new int[laenge[z]];
+                wert[z] = new long[laenge[z]];
+                laenge[z] = 0;
+            }
+        }
+        int[] ladungSpalte = new int[n];
+        long[] ladungWert = new long[n];
+        int ladungLaenge = 0;
+        for (int i = 0; i < n; i++) {
+            Formula f = species[i];
+            int seite = i < reactantCount ? 1 : -1;
+            for (int e = 0; e < f.elementCount(); e++) {
+                int z = f.elementAt(e).ordnungsZahl();
+                spalte[z][laenge[z]] = i;
+                wert[z][laenge[z]++] = seite * f.countAt(e);
+            }
+            if (f.charge() != 0) {
+                ladungSpalte[ladungLaenge] = i;
+                ladungWert[ladungLaenge++] = seite * f.charge();
+            }
+        }
+        IntegerNullSpace matrix = new IntegerNullSpace(n);
+        for (int z = 1; z < Formula.VECTOR_LENGTH; z++) {
+            if (laenge[z] != 0) {
+                matrix.addRow(spalte[z], wert[z], laenge[z]);
+            }
+        }
+        if (geladen) {
+            matrix.addRow(ladungSpalte, ladungWert, ladungLaenge);
+        }
+        return matrix.solve();
+    }
+
+    /**
+     * @return {@code true}, wenn mit den aktuellen Koeffizienten jedes Element auf beiden
+     * Seiten gleich oft vorkommt und die Ladung gleich ist.
+     */
+    public boolean isBalanced() {
+        long[] bilanz = new long[Formula.VECTOR_LENGTH];
+        long ladung = 0;
+        for (int i = 0; i < species.length; i++) {
+            long k = i < reactantCount ? coefficients[i] : -coefficients[i];
+            Formula f = species[i];
+            for (int e = 0; e < f.elementCount(); e++) {
+                bilanz[f.elementAt(e).ordnungsZahl()] += k * f.countAt(e);
+            }
+            ladung += k * f.charge();
+        }
+        for (long b : bilanz) {
+            if (b != 0) {
+                return false;
+            }
+        }
+        return ladung == 0;
+    }
+
+    /**
+     * @return Die Anzahl der Spezies, Edukte zuerst.
+     */
+    public int speciesCount() {
+        return species.length;
+    }
+
+    /**
+     * @return Die Anzahl der Edukte; die Spezies {@code 0..reactantCount()-1} sind Edukte.
+     */
+    public int reactantCount() {
+        return reactantCount;
+    }
+
+    /**
+     * @return Die Anzahl der Produkte.
+     */
+    public int productCount() {
+        return species.length - reactantCount;
+    }
+
+    /**
+     * @param index Index zwischen 0 und {@link #speciesCount()} - 1.
+     * @return Die Formel der Spezies.
+     */
+    public Formula species(int index) {
+        return species[index];
+    }
+
+    /**
+     * @param index Index zwischen 0 und {@link #speciesCount()} - 1.
+     * @return Die Formel der Spezies, wie sie in der Gleichung stand.
+     */
+    public String speciesName(int index) {
+        return names[index];
+    }
+
+    /**
+     * @param index Index zwischen 0 und {@link #speciesCount()} - 1.
+     * @return Der Koeffizient der Spezies, immer positiv.
+     */
+    public long coefficient(int index) {
+        return coefficients[index];
+    }
+
+    /**
+     * @return Die Summe Koeffizient mal Molekulargewicht aller Edukte in g/mol.
+     */
+    public double reactantMass() {
+        return ExactMass.toDouble(mikro(0, reactantCount));
+    }
+
+    /**
+     * @return Die Summe Koeffizient mal Molekulargewicht aller Produkte in g/mol.
+     */
+    public double productMass() {
+        return ExactMass.toDouble(mikro(reactantCount, species.length));
+    }
+
+    /**
+     * Gibt die Massenbilanz zurück, exakt in Mikro-g/mol gerechnet. Für eine ausgeglichene
+     * Reaktion ist sie genau 0.
+     *
+     * @return Produktmasse minus Eduktmasse in g/mol.
+     */
+    public double massDifference() {
+        return ExactMass.toDouble(Math.subtractExact(mikro(reactantCount, species.length), mikro(0, reactantCount)));
+    }
+
+    private long mikro(int von, int bis) {
+        long sum = 0;
+        for (int i = von; i < bis; i++) {
+            sum = Math.addExact(sum, Math.multiplyExact(coefficients[i], ExactMass.micros(species[i])));
+        }
+        return sum;
+    }
+
+    /**
+     * Gleicht einen Stapel von Reaktionen parallel im gemeinsamen
+     * {@link ForkJoinPool#commonPool()} aus.
+     *
+     * @see #balanceAll(List, Reaction[], ForkJoinPool)
+     */
+    public static BatchResult balanceAll(List<? extends CharSequence> reactions, Reaction[] results) {
+        return balanceAll(reactions, results, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Gleicht einen Stapel von Reaktionen parallel im angegebenen Pool aus. Eine fehlerhafte
+     * oder nicht ausgleichbare Reaktion bricht den Stapel nicht ab: ihr Ergebnis ist
+     * {@code null} und der Fehler wird im Ergebnis vermerkt.
+     *
+     * @param reactions Die Reaktionsgleichungen.
+     * @param results   Das Ergebnis-Array; {@code results[i]} erhält die ausgeglichene
+     *                  Reaktion zu {@code reactions.get(i)}. Es muss mindestens so lang sein wie die Liste.
+     * @param pool      Der Pool.
+     * @return Die Fehler, nach Index sortiert.
+     * @throws IllegalArgumentException Wenn {@code results} zu kurz ist.
+     */
+    public static BatchResult balanceAll(List<? extends CharSequence> reactions, Reaction[] results, ForkJoinPool pool) {
+        if (!(reactions instanceof RandomAccess)) {
+            reactions = new ArrayList<>(reactions);
+        }
+        if (results.length < reactions.size()) {
+            throw new IllegalArgumentException("Ergebnis-Array zu kurz: " + results.length + " < " + reactions.size());
+        }
+        Task task = new Task(reactions, results, 0, reactions.size());
+        pool.invoke(task);
+        return new BatchResult(reactions.size(), task.failures);
+    }
+
+    /**
+     * Gibt die Gleichung mit Koeffizienten zurück, z.B. "C3H8 + 5 O2 -> 3 CO2 + 4 H2O".
+     * Die Ausgabe lässt sich mit {@link #parse(CharSequence)} wieder einlesen.
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < species.length; i++) {
+            if (i == reactantCount) {
+                text.append(" -> ");
+            } else if (i > 0) {
+                text.append(" + ");
+            }
+            if (coefficients[i] != 1) {
+                text.append(coefficients[i]).append(' ');
+            }
+            text.append(names[i]);
+        }
+        return text.toString();
+    }
+
+    private static final class Task extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<? extends CharSequence> reactions;
+        private final Reaction[] results;
+        private final int from;
+        private final int to;
+        private List<BatchResult.Failure> failures = new ArrayList<>(0);
+
+        Task(List<? extends CharSequence> reactions, Reaction[] results, int from, int to) {
+            this.reactions = reactions;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SCHWELLE) {
+                for (int i = from; i < to; i++) {
+                    CharSequence reaction = reactions.get(i);
+                    try {
+                        results[i] = balance(reaction);
+                    } catch (RuntimeException e) {
+                        results[i] = null;
+                        failures.add(new BatchResult.Failure(i, reaction, e));
+                    }
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            Task left = new Task(reactions, results, from, mid);
+            Task right = new Task(reactions, results, mid, to);
+            invokeAll(left, right);
+            if (left.failures.isEmpty()) {
+                failures = right.failures;
+            } else {
+                failures = left.failures;
+                failures.addAll(right.failures);
+            }
+        }
+    }
+}
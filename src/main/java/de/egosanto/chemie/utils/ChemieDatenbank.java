@@ -0,0 +1,280 @@
+package de.egosanto.chemie.utils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.List;
+import java.util.OptionalDouble;
+
+/**
+ * Persistenz des Periodensystems und berechneter Molekulargewichte in einer eingebetteten
+ * SQLite-Datenbank über JDBC.
+ *
+ * SQLite Tabelle "element":
+ * <pre>
+ * element = {
+ *     ordnungs_zahl    INTEGER NOT NULL UNIQUE,
+ *     symbol           VARCHAR(3) PRIMARY KEY NOT NULL,
+ *     ist_radioaktiv   BOOLEAN NOT NULL,
+ *     element_name     VARCHAR(20) NOT NULL,
+ *     atom_gewicht     DECIMAL(8,4) NOT NULL,
+ *     elektronen_konf  VARCHAR(30) NOT NULL,   -- z.B. "2,8,1"
+ *     negativitaet     DECIMAL(3,2),
+ *     ist_natuerlich   BOOLEAN NOT NULL,
+ *     agregat_zustand  VARCHAR(25) NOT NULL,
+ *     gruppe           VARCHAR(20) NOT NULL
+ * }
+ * </pre>
+ * SQLite Tabelle "verbindung" mit den berechneten Gewichten:
+ * <pre>
+ * verbindung = {
+ *     formel           TEXT PRIMARY KEY NOT NULL,
+ *     gewicht          REAL NOT NULL
+ * }
+ * </pre>
+ *
+ * Alle Massen-Einfügungen laufen über ein einziges {@link PreparedStatement} mit
+ * {@code addBatch} in einer Transaktion; bei einem Fehler jeder Art wird die Transaktion
+ * zurückgerollt. Ist beim Aufruf bereits eine Transaktion des Aufrufers offen
+ * ({@code autoCommit} aus), wird in ihr gespeichert; Commit und Rollback bleiben dann dem
+ * Aufrufer überlassen. Die Verbindung wird nicht geschlossen, das bleibt Aufgabe des Aufrufers.
+ * Zum Testen genügt eine In-Memory-Datenbank ({@code jdbc:sqlite::memory:}).
+ *
+ * @author Toni Zeidler
+ * @date 2026-10-18
+ * @version 1.0
+ */
+public class ChemieDatenbank {
+
+    /** Anzahl Zeilen pro {@code executeBatch}, damit der Batch-Puffer bei Millionen Zeilen klein bleibt. */
+    static final int BATCH_GROESSE = 10_000;
+
+    private static final String CREATE_ELEMENT = "CREATE TABLE IF NOT EXISTS element ("
+            + "ordnungs_zahl    INTEGER NOT NULL UNIQUE, "
+            + "symbol           VARCHAR(3) PRIMARY KEY NOT NULL, "
+            + "ist_radioaktiv   BOOLEAN NOT NULL, "
+            + "element_name     VARCHAR(20) NOT NULL, "
+            + "atom_gewicht     DECIMAL(8,4) NOT NULL, "
+            + "elektronen_konf  VARCHAR(30) NOT NULL, "
+            + "negativitaet     DECIMAL(3,2), "
+            + "ist_natuerlich   BOOLEAN NOT NULL, "
+            + "agregat_zustand  VARCHAR(25) NOT NULL, "
+            + "gruppe           VARCHAR(20) NOT NULL)";
+
+    private static final String CREATE_VERBINDUNG = "CREATE TABLE IF NOT EXISTS verbindung ("
+            + "formel           TEXT PRIMARY KEY NOT NULL, "
+            + "gewicht          REAL NOT NULL)";
+
+    private static final String INSERT_ELEMENT = "INSERT OR REPLACE INTO element (ordnungs_zahl, symbol, "
+            + "ist_radioaktiv, element_name, atom_gewicht, elektronen_konf, negativitaet, ist_natuerlich, "
+            + "agregat_zustand, gruppe) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_VERBINDUNG = "INSERT OR REPLACE INTO verbindung (formel, gewicht) VALUES (?, ?)";
+
+    private final Connection conn;
+
+    /**
+     * @param conn Eine offene Verbindung zur Datenbank, z.B.
+     *             {@code DriverManager.getConnection("jdbc:sqlite:chemie.db")}.
+     */
+    public ChemieDatenbank(Connection conn) {
+        this.conn = conn;
+    }
+
+    /**
+     * Legt die Tabellen "element" und "verbindung" an, falls sie noch nicht existieren.
+     *
+     * @throws SQLException Bei einem Datenbankfehler.
+     */
+    public void createSchema() throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate(CREATE_ELEMENT);
+            stmt.executeUpdate(CREATE_VERBINDUNG);
+        }
+    }
+
+    /**
+     * Speichert alle 118 Elemente in einer Transaktion.
+     *
+     * @return Die Anzahl der gespeicherten Elemente.
+     * @throws SQLException Bei einem Datenbankfehler; in eigener Transaktion wird dann nichts gespeichert.
+     */
+    public int insertElements() throws SQLException {
+        return insertElements(Element.alle());
+    }
+
+    /**
+     * Speichert die angegebenen Elemente in einer Transaktion. Vorhandene Zeilen mit
+     * demselben Symbol werden ersetzt.
+     *
+     * @param elements Die Elemente.
+     * @return Die Anzahl der gespeicherten Elemente.
+     * @throws SQLException Bei einem Datenbankfehler; in eigener Transaktion wird dann nichts gespeichert.
+     */
+    public int insertElements(Collection<Element> elements) throws SQLException {
+        boolean eigene = beginTransaction();
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT_ELEMENT)) {
+            for (Element e : elements) {
+                stmt.setInt(1, e.ordnungsZahl());
+                stmt.setString(2, e.symbol());
+                stmt.setBoolean(3, e.istRadioaktiv());
+                stmt.setString(4, e.elementName());
+                stmt.setDouble(5, e.atomGewicht());
+                stmt.setString(6, konfiguration(e));
+                stmt.setDouble(7, e.elektronegativität());
+                stmt.setBoolean(8, e.istNatürlichesElement());
+                stmt.setString(9, e.aggregatZustand().name());
+                stmt.setString(10, e.elementGruppe().name());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+            if (eigene) {
+                conn.commit();
+            }
+            return elements.size();
+        } catch (Throwable t) {
+            if (eigene) {
+                rollback(t);
+            }
+            throw t;
+        } finally {
+            if (eigene) {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Speichert berechnete Molekulargewichte in einer Transaktion, z.B. das Ergebnis von
+     * {@code MolecularWeightCalculator.calculateMolecularWeights(formulas, weights)}.
+     * Einträge mit {@link Double#NaN} (fehlerhafte Formeln) werden übersprungen.
+     *
+     * @param formulas Die Formeln.
+     * @param weights  Die Gewichte, {@code weights[i]} gehört zu {@code formulas.get(i)}.
+     * @return Die Anzahl der gespeicherten Zeilen.
+     * @throws SQLException Bei einem Datenbankfehler; in eigener Transaktion wird dann nichts gespeichert.
+     */
+    public long insertWeights(List<? extends CharSequence> formulas, double[] weights) throws SQLException {
+        if (weights.length < formulas.size()) {
+            throw new IllegalArgumentException("Gewichts-Array zu kurz: " + weights.length + " < " + formulas.size());
+        }
+        boolean eigene = beginTransaction();
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT_VERBINDUNG)) {
+            long count = 0;
+            int imBatch = 0;
+            for (int i = 0; i < formulas.size(); i++) {
+                if (Double.isNaN(weights[i])) {
+                    continue;
+                }
+                stmt.setString(1, formulas.get(i).toString());
+                stmt.setDouble(2, weights[i]);
+                stmt.addBatch();
+                count++;
+                if (++imBatch == BATCH_GROESSE) {
+                    stmt.executeBatch();
+                    imBatch = 0;
+                }
+            }
+            if (imBatch > 0) {
+                stmt.executeBatch();
+            }
+            if (eigene) {
+                conn.commit();
+            }
+            return count;
+        } catch (Throwable t) {
+            if (eigene) {
+                rollback(t);
+            }
+            throw t;
+        } finally {
+            if (eigene) {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Liest das gespeicherte Gewicht einer Formel.
+     *
+     * @param formula Die Formel, wie sie gespeichert wurde.
+     * @return Das Gewicht, oder leer wenn die Formel nicht gespeichert ist.
+     * @throws SQLException Bei einem Datenbankfehler.
+     */
+    public OptionalDouble findWeight(String formula) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT gewicht FROM verbindung WHERE formel = ?")) {
+            stmt.setString(1, formula);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? OptionalDouble.of(rs.getDouble(1)) : OptionalDouble.empty();
+            }
+        }
+    }
+
+    /**
+     * Liest das gespeicherte Atomgewicht eines Elements.
+     *
+     * @param symbol Das Elementsymbol, z.B. "Na".
+     * @return Das Atomgewicht, oder leer wenn das Element nicht gespeichert ist.
+     * @throws SQLException Bei einem Datenbankfehler.
+     */
+    public OptionalDouble findAtomGewicht(String symbol) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT atom_gewicht FROM element WHERE symbol = ?")) {
+            stmt.setString(1, symbol);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? OptionalDouble.of(rs.getDouble(1)) : OptionalDouble.empty();
+            }
+        }
+    }
+
+    /**
+     * @param table "element" oder "verbindung".
+     * @return Die Anzahl der Zeilen in der Tabelle.
+     * @throws SQLException Bei einem Datenbankfehler.
+     */
+    public long count(String table) throws SQLException {
+        if (!table.equals("element") && !table.equals("verbindung")) {
+            throw new IllegalArgumentException("Unbekannte Tabelle: " + table);
+        }
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM " + table)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    /**
+     * Beginnt eine eigene Transaktion, falls keine des Aufrufers offen ist.
+     *
+     * @return {@code true}, wenn die Transaktion eine eigene ist und daher hier
+     * abgeschlossen werden muss.
+     */
+    private boolean beginTransaction() throws SQLException {
+        if (!conn.getAutoCommit()) {
+            return false;
+        }
+        conn.setAutoCommit(false);
+        return true;
+    }
+
+    /** Rollt die eigene Transaktion zurück; ein Fehler dabei wird an {@code ursache} angehängt. */
+    private void rollback(Throwable ursache) {
+        try {
+            conn.rollback();
+        } catch (SQLException e) {
+            ursache.addSuppressed(e);
+        }
+    }
+
+    private static String konfiguration(Element e) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < e.schalenAnzahl(); i++) {
+            if (i > 0) {
+                text.append(',');
+            }
+            text.append(e.elektronenInSchale(i));
+        }
+        return text.toString();
+    }
+}
@@ -2,6 +2,8 @@ package de.egosanto.chemie.utils;
 
 
 import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
 
 /**
  * Die Enumeration `Element` repräsentiert die chemischen Elemente des Periodensystems.
@@ -205,39 +207,214 @@ public enum Element {
     public String symbol(){ return symbol; }
     public String elementName(){ return elementName; }
     public double atomGewicht(){ return atomGewicht; }
-    public int[] elektronenKonfiguration(){ return elektronenKonfiguration; }
+    /** Gibt eine Kopie der Elektronenkonfiguration zurück, siehe auch {@link #elektronenInSchale(int)}. */
+    public int[] elektronenKonfiguration(){ return elektronenKonfiguration.clone(); }
     public double elektronegativität(){ return elektronegativität;}
     public boolean istNatürlichesElement(){ return istNatürlichesElement; }
     public AgregatZustand aggregatZustand(){ return aggregatZustand; }
     public ElementGruppe elementGruppe(){ return elementGruppe; }
 
-    /**TODO
-     * SQLite Table "element"
-     * 	element={
-     * 		ordnungs_zahl 	INTEGER(3) NOT NULL,
-     * 		symbol 			VARCHAR(3) PRIMARY_KEY NOT NULL,
-     * 		ist_radioaktiv 	BOOLEAN NOT NULL,
-     * 		element_name 	VARCHAR(20) NOT NULL,
-     * 		.....
+    /** Anzahl der besetzten Elektronenschalen. */
+    public int schalenAnzahl(){ return elektronenKonfiguration.length; }
+
+    /**
+     * Gibt die Anzahl der Elektronen in einer Schale zurück, ohne das Array der
+     * Elektronenkonfiguration herauszugeben oder zu kopieren.
+     *
+     * @param schale Die Schale, 0 für die innerste (K-Schale) bis {@link #schalenAnzahl()} - 1.
+     * @return Die Anzahl der Elektronen in dieser Schale.
+     * @throws IndexOutOfBoundsException Wenn die Schale nicht besetzt ist.
+     */
+    public int elektronenInSchale(int schale){ return elektronenKonfiguration[schale]; }
+
+    /** Anzahl der Elektronen in der äußersten besetzten Schale. */
+    public int valenzElektronen(){ return elektronenKonfiguration[elektronenKonfiguration.length - 1]; }
+
+    /**
+     * Gibt die natürlich vorkommenden Isotope mit exakter Masse und Häufigkeit zurück,
+     * aufsteigend nach Massenzahl. Für radioaktive Elemente ohne Isotopendaten (siehe
+     * {@link #hatIsotopendaten()}) enthält die Liste ein Pseudo-Isotop mit dem mittleren
+     * Atomgewicht und der Häufigkeit 1.
+     *
+     * @return Die unveränderliche Liste der Isotope.
+     */
+    public List<Isotop> isotope(){ return IsotopenTabelle.isotope(ordnungsZahl); }
+
+    /**
+     * Gibt an, ob {@link #isotope()} gemessene Isotopendaten enthält. {@code false} nur für
+     * radioaktive Elemente ohne natürliche Standardzusammensetzung, z.B. Technetium; deren
+     * Isotopenverteilung ist nur eine Näherung.
+     */
+    public boolean hatIsotopendaten(){ return IsotopenTabelle.MIT_DATEN[ordnungsZahl]; }
+
+    /** Exakte Masse des häufigsten Isotops in u, z.B. 12.0 für Kohlenstoff. */
+    public double monoisotopischeMasse(){ return IsotopenTabelle.MONOISOTOPISCHE_MASSEN[ordnungsZahl]; }
+
+    /** Alle Elemente in Reihenfolge der Ordnungszahl; anders als {@link #values()} ohne Kopie. */
+    private static final List<Element> ALLE = List.of(values());
+
+    /**
+     * Atomgewichte indiziert über die Ordnungszahl (Index 0 ist 0.0), für Schleifen über
+     * viele Elemente, die die Werte dicht hintereinander im Speicher lesen sollen.
+     * Nach außen nur über {@link #atomGewicht(int)} und {@link #atomGewichte()} sichtbar.
+     */
+    static final double[] ATOM_GEWICHTE = new double[119];
+
+    /**
+     * Atomgewichte in Mikro-g/mol (Millionstel), indiziert über die Ordnungszahl (Index 0 ist 0).
+     * Die Tabellenwerte haben höchstens vier Nachkommastellen und sind damit exakt
+     * darstellbar; Summen über diese Werte sind unabhängig von der Reihenfolge.
+     */
+    static final long[] ATOM_GEWICHTE_MIKRO = new long[119];
+
+    /**
+     * Elektronegativitäten indiziert über die Ordnungszahl (Index 0 ist 0.0).
+     */
+    static final double[] ELEKTRONEGATIVITAET = new double[119];
+
+    /** Zweiter Index der Symboltabelle: 0 für einbuchstabige Symbole, sonst 'a'..'z' -> 1..26. */
+    private static final int ZWEITES_ZEICHEN = 27;
+
+    /** Symboltabelle, indiziert über den ersten (Großbuchstabe) und zweiten (Kleinbuchstabe) Buchstaben. */
+    private static final Element[] NACH_SYMBOL = new Element[26 * ZWEITES_ZEICHEN];
+
+    /** Elemente nach Ordnungszahl, Index 0 bleibt leer. */
+    private static final Element[] NACH_ORDNUNGSZAHL = new Element[119];
+
+    static {
+        for (Element element : ALLE) {
+            String symbol = element.symbol;
+            NACH_SYMBOL[symbolIndex(symbol.charAt(0), symbol.length() > 1 ? symbol.charAt(1) : '\0')] = element;
+            NACH_ORDNUNGSZAHL[element.ordnungsZahl] = element;
+            ATOM_GEWICHTE[element.ordnungsZahl] = element.atomGewicht;
+            ATOM_GEWICHTE_MIKRO[element.ordnungsZahl] = Math.round(element.atomGewicht * 1_000_000);
+            ELEKTRONEGATIVITAET[element.ordnungsZahl] = element.elektronegativität;
+        }
+    }
+
+    /**
+     * Gibt das Atomgewicht zur Ordnungszahl zurück, ohne den Umweg über das Element.
      *
-     * }
+     * @param ordnungsZahl Die Ordnungszahl, 0 bis 118.
+     * @return Das Atomgewicht in g/mol, 0.0 für die Ordnungszahl 0.
+     * @throws ArrayIndexOutOfBoundsException Wenn die Ordnungszahl außerhalb von 0 bis 118 liegt.
+     */
+    public static double atomGewicht(int ordnungsZahl){ return ATOM_GEWICHTE[ordnungsZahl]; }
+
+    /**
+     * Gibt das Atomgewicht zur Ordnungszahl in ganzen Mikro-g/mol (Millionstel) zurück.
+     * Die Tabellenwerte haben höchstens vier Nachkommastellen und sind damit exakt
+     * darstellbar; Summen über diese Werte sind unabhängig von der Reihenfolge.
+     *
+     * @param ordnungsZahl Die Ordnungszahl, 0 bis 118.
+     * @return Das Atomgewicht in Mikro-g/mol, 0 für die Ordnungszahl 0.
+     * @throws ArrayIndexOutOfBoundsException Wenn die Ordnungszahl außerhalb von 0 bis 118 liegt.
+     */
+    public static long atomGewichtMikro(int ordnungsZahl){ return ATOM_GEWICHTE_MIKRO[ordnungsZahl]; }
+
+    /**
+     * Gibt die Elektronegativität zur Ordnungszahl zurück.
      *
-     * @param conn
-     */
-    public void insertIntoSQLiteDB(Connection conn){
-        String createStmt = "IF NOT EXIST CREATE TABLE element ("
-                + "ordnungs_zahl 	INTEGER(3) NOT NULL, "
-                + "symbol 			VARCHAR(3) PRIMARY_KEY NOT NULL, "
-                + "ist_radioaktiv 	BOOLEAN NOT NULL, "
-                + "element_name 		VARCHAR(20) NOT NULL,"
-                + "atom_gewicht		DECIMAL(3.4) NOT NULL,"
-                + "electronen_konf	VARCHAR(20) NOT NULL,"
-                + "negativitaet		DECIMAL(1.1) ,"
-                + "ist_natuerlich	BOOLEAN NOT NULL,"
-                + "agregat_zustand	VARCHAR(20) NOT NULL,"
-                + "gruppe			VARCHAR(20) NOT NULL);";
-
-        String insertStmt = "INSERT INTO element";
+     * @param ordnungsZahl Die Ordnungszahl, 0 bis 118.
+     * @return Die Elektronegativität, 0.0 für die Ordnungszahl 0.
+     * @throws ArrayIndexOutOfBoundsException Wenn die Ordnungszahl außerhalb von 0 bis 118 liegt.
+     */
+    public static double elektronegativität(int ordnungsZahl){ return ELEKTRONEGATIVITAET[ordnungsZahl]; }
+
+    /**
+     * Gibt eine Kopie der Atomgewichte indiziert über die Ordnungszahl zurück (Index 0 ist
+     * 0.0), für Spaltenberechnungen, die die Werte einmalig übernehmen.
+     *
+     * @return Ein neues Array mit 119 Einträgen.
+     */
+    public static double[] atomGewichte(){ return ATOM_GEWICHTE.clone(); }
+
+    /**
+     * Gibt alle Elemente in Reihenfolge der Ordnungszahl zurück. Im Gegensatz zu
+     * {@link #values()} wird dabei kein neues Array erzeugt; die Liste ist unveränderlich.
+     *
+     * @return Die unveränderliche Liste aller Elemente.
+     */
+    public static List<Element> alle() {
+        return ALLE;
+    }
+
+    /**
+     * Berechnet den Index eines Symbols in der Symboltabelle.
+     *
+     * @return Der Index oder -1, wenn die Zeichen kein gültiges Symbolmuster bilden.
+     */
+    private static int symbolIndex(char first, char second) {
+        if (first < 'A' || first > 'Z') {
+            return -1;
+        }
+        int zweites;
+        if (second == '\0') {
+            zweites = 0;
+        } else if (second >= 'a' && second <= 'z') {
+            zweites = second - 'a' + 1;
+        } else {
+            return -1;
+        }
+        return (first - 'A') * ZWEITES_ZEICHEN + zweites;
+    }
+
+    /**
+     * Sucht ein Element anhand seines Symbols, ohne Objekte zu erzeugen oder eine
+     * Ausnahme zu werfen. Im Gegensatz zu {@link #valueOf(String)} wird kein String benötigt.
+     *
+     * @param first  Der erste Buchstabe des Symbols (Großbuchstabe).
+     * @param second Der zweite Buchstabe des Symbols (Kleinbuchstabe) oder {@code '\0'}
+     *               bei einbuchstabigen Symbolen wie "H".
+     * @return Das Element oder {@code null}, wenn es kein Element mit diesem Symbol gibt.
+     */
+    public static Element bySymbol(char first, char second) {
+        int index = symbolIndex(first, second);
+        return index < 0 ? null : NACH_SYMBOL[index];
+    }
+
+    /**
+     * Sucht ein Element anhand des Symbols im Bereich {@code [start, end)} einer Zeichenfolge.
+     *
+     * @param text  Die Zeichenfolge, die das Symbol enthält.
+     * @param start Der Index des ersten Zeichens des Symbols.
+     * @param end   Der Index hinter dem letzten Zeichen des Symbols.
+     * @return Das Element oder {@code null}, wenn der Bereich kein bekanntes Symbol enthält.
+     */
+    public static Element bySymbol(CharSequence text, int start, int end) {
+        switch (end - start) {
+            case 1:
+                return bySymbol(text.charAt(start), '\0');
+            case 2:
+                return bySymbol(text.charAt(start), text.charAt(start + 1));
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Sucht ein Element anhand seiner Ordnungszahl.
+     *
+     * @param ordnungsZahl Die Ordnungszahl (1 bis 118).
+     * @return Das Element oder {@code null}, wenn die Ordnungszahl außerhalb des Periodensystems liegt.
+     */
+    public static Element byOrdnungsZahl(int ordnungsZahl) {
+        return ordnungsZahl > 0 && ordnungsZahl < NACH_ORDNUNGSZAHL.length ? NACH_ORDNUNGSZAHL[ordnungsZahl] : null;
+    }
+
+    /**
+     * Speichert dieses Element in der SQLite-Tabelle "element" und legt die Tabelle bei
+     * Bedarf an. Für alle Elemente auf einmal sollte {@link ChemieDatenbank#insertElements()}
+     * verwendet werden, das alle Zeilen in einem Batch und einer Transaktion schreibt.
+     *
+     * @param conn Eine offene Verbindung zur Datenbank.
+     * @throws SQLException Bei einem Datenbankfehler.
+     * @see ChemieDatenbank
+     */
+    public void insertIntoSQLiteDB(Connection conn) throws SQLException {
+        ChemieDatenbank db = new ChemieDatenbank(conn);
+        db.createSchema();
+        db.insertElements(List.of(this));
     }
 
 
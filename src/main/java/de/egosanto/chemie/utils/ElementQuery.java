@@ -0,0 +1,325 @@
+package de.egosanto.chemie.utils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * Unveränderliche Auswahl von Elementen als Bitmaske über die Ordnungszahl, z.B. "alle
+ * radioaktiven Feststoffe":
+ * <pre>
+ * ElementQuery.where(ElementQuery.radioaktiv()).and(ElementQuery.zustand(AgregatZustand.FESTSTOFF)).toList()
+ * </pre>
+ *
+ * Die Masken für Radioaktivität, natürliches Vorkommen, Aggregatzustand und Gruppe werden
+ * einmalig vorberechnet; {@link #and}, {@link #or} und {@link #not} sind dann je zwei
+ * bitweise Operationen auf {@code long}. Bereichsabfragen über Atomgewicht,
+ * Elektronegativität und Ordnungszahl suchen die Grenzen per Binärsuche in sortierten
+ * primitiven Arrays und setzen nur die Bits der Treffer.
+ *
+ * Elemente ohne bekannte Elektronegativität haben den Wert 0.0 und werden von
+ * Bereichen, die 0.0 einschließen, mit erfasst.
+ *
+ * @author Toni Zeidler
+ * @date 2026-10-18
+ * @version 1.0
+ * @see Element
+ */
+public final class ElementQuery {
+
+    // Bit i steht für die Ordnungszahl i + 1: "unten" für 1..64, "oben" für 65..118.
+    private static final int ANZAHL = Element.alle().size();
+    private static final long OBEN_ALLE = (1L << (ANZAHL - 64)) - 1;
+
+    private static final ElementQuery ALLE = new ElementQuery(-1L, OBEN_ALLE);
+    private static final ElementQuery KEINE = new ElementQuery(0L, 0L);
+
+    private static final ElementQuery RADIOAKTIV;
+    private static final ElementQuery NATUERLICH;
+    private static final ElementQuery[] NACH_ZUSTAND = new ElementQuery[AgregatZustand.values().length];
+    private static final ElementQuery[] NACH_GRUPPE = new ElementQuery[ElementGruppe.values().length];
+
+    /** Atomgewichte aufsteigend, {@code GEWICHT_Z[i]} ist die Ordnungszahl zu {@code GEWICHT[i]}. */
+    private static final double[] GEWICHT = new double[ANZAHL];
+    private static final int[] GEWICHT_Z = new int[ANZAHL];
+
+    /** Elektronegativitäten aufsteigend, {@code NEGATIVITAET_Z[i]} ist die zugehörige Ordnungszahl. */
+    private static final double[] NEGATIVITAET = new double[ANZAHL];
+    private static final int[] NEGATIVITAET_Z = new int[ANZAHL];
+
+    static {
+        long[] radioaktiv = new long[2];
+        long[] natuerlich = new long[2];
+        long[][] zustand = new long[NACH_ZUSTAND.length][2];
+        long[][] gruppe = new long[NACH_GRUPPE.length][2];
+        for (Element e : Element.alle()) {
+            int z = e.ordnungsZahl();
+            if (e.istRadioaktiv()) {
+                setzen(radioaktiv, z);
+            }
+            if (e.istNatürlichesElement()) {
+                setzen(natuerlich, z);
+            }
+            setzen(zustand[e.aggregatZustand().ordinal()], z);
+            setzen(gruppe[e.elementGruppe().ordinal()], z);
+        }
+        RADIOAKTIV = new ElementQuery(radioaktiv[0], radioaktiv[1]);
+        NATUERLICH = new ElementQuery(natuerlich[0], natuerlich[1]);
+        for (int i = 0; i < NACH_ZUSTAND.length; i++) {
+            NACH_ZUSTAND[i] = new ElementQuery(zustand[i][0], zustand[i][1]);
+        }
+        for (int i = 0; i < NACH_GRUPPE.length; i++) {
+            NACH_GRUPPE[i] = new ElementQuery(gruppe[i][0], gruppe[i][1]);
+        }
+        sortieren(Element.ATOM_GEWICHTE, GEWICHT, GEWICHT_Z);
+        sortieren(Element.ELEKTRONEGATIVITAET, NEGATIVITAET, NEGATIVITAET_Z);
+    }
+
+    private final long unten;
+    private final long oben;
+
+    private ElementQuery(long unten, long oben) {
+        this.unten = unten;
+        this.oben = oben;
+    }
+
+    private static void setzen(long[] maske, int z) {
+        int bit = z - 1;
+        maske[bit >>> 6] |= 1L << bit;
+    }
+
+    /** Füllt {@code werte} aufsteigend sortiert mit den Werten nach Ordnungszahl (Einfügesortierung, einmalig). */
+    private static void sortieren(double[] nachOrdnungsZahl, double[] werte, int[] ordnungsZahlen) {
+        for (int i = 0; i < ANZAHL; i++) {
+            int z = i + 1;
+            double wert = nachOrdnungsZahl[z];
+            int j = i;
+            while (j > 0 && werte[j - 1] > wert) {
+                werte[j] = werte[j - 1];
+                ordnungsZahlen[j] = ordnungsZahlen[j - 1];
+                j--;
+            }
+            werte[j] = wert;
+            ordnungsZahlen[j] = z;
+        }
+    }
+
+    /** Erster Index mit {@code werte[i] >= wert}. */
+    private static int untereGrenze(double[] werte, double wert) {
+        int lo = 0;
+        int hi = werte.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (werte[mid] < wert) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /** Erster Index mit {@code werte[i] > wert}. */
+    private static int obereGrenze(double[] werte, double wert) {
+        int lo = 0;
+        int hi = werte.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (werte[mid] <= wert) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static ElementQuery bereich(double[] werte, int[] ordnungsZahlen, double von, double bis) {
+        long[] maske = new long[2];
+        for (int i = untereGrenze(werte, von), ende = obereGrenze(werte, bis); i < ende; i++) {
+            setzen(maske, ordnungsZahlen[i]);
+        }
+        return new ElementQuery(maske[0], maske[1]);
+    }
+
+    /**
+     * Einstieg in eine Abfrage; gibt die Bedingung unverändert zurück und dient nur der Lesbarkeit.
+     *
+     * @param bedingung Die erste Bedingung.
+     * @return Die Bedingung.
+     */
+    public static ElementQuery where(ElementQuery bedingung) {
+        return bedingung;
+    }
+
+    /** @return Alle Elemente. */
+    public static ElementQuery alle() {
+        return ALLE;
+    }
+
+    /** @return Kein Element. */
+    public static ElementQuery keine() {
+        return KEINE;
+    }
+
+    /**
+     * @param elements Die Elemente.
+     * @return Genau die angegebenen Elemente.
+     */
+    public static ElementQuery of(Element... elements) {
+        long[] maske = new long[2];
+        for (Element e : elements) {
+            setzen(maske, e.ordnungsZahl());
+        }
+        return new ElementQuery(maske[0], maske[1]);
+    }
+
+    /** @return Alle radioaktiven Elemente. */
+    public static ElementQuery radioaktiv() {
+        return RADIOAKTIV;
+    }
+
+    /** @return Alle natürlich vorkommenden Elemente. */
+    public static ElementQuery natuerlich() {
+        return NATUERLICH;
+    }
+
+    /**
+     * @param zustand Der Aggregatzustand bei Raumtemperatur.
+     * @return Alle Elemente in diesem Aggregatzustand.
+     */
+    public static ElementQuery zustand(AgregatZustand zustand) {
+        return NACH_ZUSTAND[zustand.ordinal()];
+    }
+
+    /**
+     * @param gruppe Die Elementgruppe.
+     * @return Alle Elemente dieser Gruppe.
+     */
+    public static ElementQuery gruppe(ElementGruppe gruppe) {
+        return NACH_GRUPPE[gruppe.ordinal()];
+    }
+
+    /**
+     * @param von Die kleinste Ordnungszahl (einschließlich).
+     * @param bis Die größte Ordnungszahl (einschließlich).
+     * @return Alle Elemente mit einer Ordnungszahl im Bereich.
+     */
+    public static ElementQuery ordnungsZahl(int von, int bis) {
+        von = Math.max(von, 1);
+        bis = Math.min(bis, ANZAHL);
+        if (von > bis) {
+            return KEINE;
+        }
+        // Die Ordnungszahlen sind dicht, der Bereich ist also direkt ein Bitbereich.
+        return new ElementQuery(bitBereich(von - 1, bis - 1, 0), bitBereich(von - 1, bis - 1, 64));
+    }
+
+    /** Bits {@code von..bis} (einschließlich), eingeschränkt auf das Wort ab {@code basis}. */
+    private static long bitBereich(int von, int bis, int basis) {
+        int a = Math.max(von - basis, 0);
+        int b = Math.min(bis - basis, 63);
+        if (a > b) {
+            return 0L;
+        }
+        return (-1L >>> (63 - b)) & (-1L << a);
+    }
+
+    /**
+     * @param von Das kleinste Atomgewicht (einschließlich).
+     * @param bis Das größte Atomgewicht (einschließlich).
+     * @return Alle Elemente mit einem Atomgewicht im Bereich.
+     */
+    public static ElementQuery atomGewicht(double von, double bis) {
+        return bereich(GEWICHT, GEWICHT_Z, von, bis);
+    }
+
+    /**
+     * @param von Die kleinste Elektronegativität (einschließlich).
+     * @param bis Die größte Elektronegativität (einschließlich).
+     * @return Alle Elemente mit einer Elektronegativität im Bereich.
+     */
+    public static ElementQuery elektronegativitaet(double von, double bis) {
+        return bereich(NEGATIVITAET, NEGATIVITAET_Z, von, bis);
+    }
+
+    /** @return Die Elemente, die in dieser und der anderen Auswahl enthalten sind. */
+    public ElementQuery and(ElementQuery other) {
+        return new ElementQuery(unten & other.unten, oben & other.oben);
+    }
+
+    /** @return Die Elemente, die in dieser oder der anderen Auswahl enthalten sind. */
+    public ElementQuery or(ElementQuery other) {
+        return new ElementQuery(unten | other.unten, oben | other.oben);
+    }
+
+    /** @return Die Elemente dieser Auswahl, die nicht in der anderen enthalten sind. */
+    public ElementQuery andNot(ElementQuery other) {
+        return new ElementQuery(unten & ~other.unten, oben & ~other.oben);
+    }
+
+    /** @return Alle Elemente, die nicht in dieser Auswahl enthalten sind. */
+    public ElementQuery not() {
+        return new ElementQuery(~unten, ~oben & OBEN_ALLE);
+    }
+
+    /** @return {@code true}, wenn das Element in der Auswahl enthalten ist. */
+    public boolean contains(Element element) {
+        int bit = element.ordnungsZahl() - 1;
+        return ((bit < 64 ? unten : oben) & (1L << bit)) != 0;
+    }
+
+    /** @return Die Anzahl der ausgewählten Elemente. */
+    public int count() {
+        return Long.bitCount(unten) + Long.bitCount(oben);
+    }
+
+    /** @return {@code true}, wenn kein Element ausgewählt ist. */
+    public boolean isEmpty() {
+        return (unten | oben) == 0;
+    }
+
+    /** @return Die ausgewählten Elemente als neues {@link EnumSet}. */
+    public EnumSet<Element> toEnumSet() {
+        EnumSet<Element> set = EnumSet.noneOf(Element.class);
+        sammeln(set);
+        return set;
+    }
+
+    /** @return Die ausgewählten Elemente als unveränderliche Liste, aufsteigend nach Ordnungszahl. */
+    public List<Element> toList() {
+        List<Element> list = new ArrayList<>(count());
+        sammeln(list);
+        return Collections.unmodifiableList(list);
+    }
+
+    private void sammeln(Collection<Element> ziel) {
+        for (long bits = unten; bits != 0; bits &= bits - 1) {
+            ziel.add(Element.byOrdnungsZahl(Long.numberOfTrailingZeros(bits) + 1));
+        }
+        for (long bits = oben; bits != 0; bits &= bits - 1) {
+            ziel.add(Element.byOrdnungsZahl(Long.numberOfTrailingZeros(bits) + 65));
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof ElementQuery)) {
+            return false;
+        }
+        ElementQuery other = (ElementQuery) o;
+        return unten == other.unten && oben == other.oben;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(unten) * 31 + Long.hashCode(oben);
+    }
+
+    @Override
+    public String toString() {
+        return "ElementQuery" + toList();
+    }
+}
@@ -0,0 +1,38 @@
+package de.egosanto.chemie.utils;
+
+/**
+ * Ein stabiles (bzw. natürlich vorkommendes) Isotop eines Elements mit seiner exakten
+ * Masse und seiner natürlichen Häufigkeit.
+ *
+ * @author Toni Zeidler
+ * @date 2026-10-18
+ * @version 1.0
+ * @see Element#isotope()
+ */
+public final class Isotop {
+
+    private final Element element;
+    private final int massenZahl;
+    private final double masse;
+    private final double haeufigkeit;
+
+    Isotop(Element element, int massenZahl, double masse, double haeufigkeit) {
+        this.element = element;
+        this.massenZahl = massenZahl;
+        this.masse = masse;
+        this.haeufigkeit = haeufigkeit;
+    }
+
+    public Element element(){ return element; }
+    /** Anzahl der Nukleonen, z.B. 13 für Kohlenstoff-13. */
+    public int massenZahl(){ return massenZahl; }
+    /** Exakte Masse in u. */
+    public double masse(){ return masse; }
+    /** Natürliche Häufigkeit als Anteil zwischen 0 und 1. */
+    public double haeufigkeit(){ return haeufigkeit; }
+
+    @Override
+    public String toString() {
+        return massenZahl + element.symbol();
+    }
+}
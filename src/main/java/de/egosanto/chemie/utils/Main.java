@@ -17,8 +17,8 @@ public class Main {
         System.out.println("Atom Gewicht:\t" + ELEMENT.atomGewicht());
 
         System.out.print("Elektron Konf:\t");
-        for (int i = 0; i < ELEMENT.elektronenKonfiguration().length; i++) {
-            System.out.print(ELEMENT.elektronenKonfiguration()[i] + " ");
+        for (int i = 0; i < ELEMENT.schalenAnzahl(); i++) {
+            System.out.print(ELEMENT.elektronenInSchale(i) + " ");
         }
         System.out.println();
 
@@ -31,7 +31,7 @@ public class Main {
         System.out.println("Gruppe:\t\t" + ELEMENT.elementGruppe());
 
         // Schleife über alle Werte in Elemente
-        for (Element e : Element.values()) {
+        for (Element e : Element.alle()) {
             System.out.println("=================================");
 
             System.out.println("OrdnungsZahl:\t" + e.ordnungsZahl());
@@ -41,8 +41,8 @@ public class Main {
             System.out.println("Atom Gewicht:\t" + e.atomGewicht());
 
             System.out.print("Elektron Konf:\t");
-            for (int i = 0; i < e.elektronenKonfiguration().length; i++) {
-                System.out.print(e.elektronenKonfiguration()[i] + " ");
+            for (int i = 0; i < e.schalenAnzahl(); i++) {
+                System.out.print(e.elektronenInSchale(i) + " ");
             }
             System.out.println();
 
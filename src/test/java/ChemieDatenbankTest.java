@@ -0,0 +1,93 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.egosanto.chemie.MolecularWeightCalculator;
+import de.egosanto.chemie.utils.ChemieDatenbank;
+import de.egosanto.chemie.utils.Element;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * ChemieDatenbankTest description:
+ * Date: 18.10.2026
+ * Project Name: chemie
+ *
+ * @author Toni Zeidler
+ * @see ChemieDatenbank
+ */
+public class ChemieDatenbankTest {
+    @Test
+    public void testInsertElements() throws SQLException {
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite::memory:")) {
+            ChemieDatenbank db = new ChemieDatenbank(conn);
+            db.createSchema();
+            db.createSchema();
+            assertEquals(118, db.insertElements());
+            assertEquals(118, db.count("element"));
+            assertEquals(Element.Na.atomGewicht(), db.findAtomGewicht("Na").getAsDouble(), 0.0001);
+
+            Element.Na.insertIntoSQLiteDB(conn);
+            assertEquals(118, db.count("element"));
+        }
+    }
+
+    @Test
+    public void testInsertWeights() throws SQLException {
+        List<String> formulas = new ArrayList<>();
+        for (int i = 1; i <= 25_000; i++) {
+            formulas.add("C" + i + "H" + (2 * i + 2));
+        }
+        formulas.add("Xx");
+        double[] weights = new double[formulas.size()];
+        MolecularWeightCalculator.calculateMolecularWeights(formulas, weights);
+
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite::memory:")) {
+            ChemieDatenbank db = new ChemieDatenbank(conn);
+            db.createSchema();
+            assertEquals(25_000, db.insertWeights(formulas, weights));
+            assertEquals(25_000, db.count("verbindung"));
+            assertEquals(weights[9], db.findWeight("C10H22").getAsDouble(), 0.0001);
+            assertFalse(db.findWeight("Xx").isPresent());
+        }
+    }
+
+    @Test
+    public void testInsertWeights_LaufzeitfehlerRolltZurueck() throws SQLException {
+        // Der Fehler kommt erst nach dem ersten ausgeführten Batch.
+        List<String> formulas = new ArrayList<>();
+        for (int i = 1; i <= 15_000; i++) {
+            formulas.add("C" + i + "H" + (2 * i + 2));
+        }
+        formulas.add(null);
+        double[] weights = new double[formulas.size()];
+
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite::memory:")) {
+            ChemieDatenbank db = new ChemieDatenbank(conn);
+            db.createSchema();
+            assertThrows(NullPointerException.class, () -> db.insertWeights(formulas, weights));
+            assertTrue(conn.getAutoCommit());
+            assertEquals(0, db.count("verbindung"));
+        }
+    }
+
+    @Test
+    public void testInsertElements_TransaktionDesAufrufers() throws SQLException {
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite::memory:")) {
+            ChemieDatenbank db = new ChemieDatenbank(conn);
+            db.createSchema();
+            conn.setAutoCommit(false);
+            assertEquals(118, db.insertElements());
+            assertFalse(conn.getAutoCommit());
+            assertEquals(118, db.count("element"));
+            // Nicht bestätigt: der Aufrufer kann noch zurückrollen.
+            conn.rollback();
+            assertEquals(0, db.count("element"));
+        }
+    }
+}
@@ -0,0 +1,122 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import de.egosanto.chemie.CompositionMatrix;
+import de.egosanto.chemie.Formula;
+import de.egosanto.chemie.utils.Element;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * CompositionMatrixTest description:
+ * Date: 18.10.2026
+ * Project Name: chemie
+ *
+ * @author Toni Zeidler
+ * @see CompositionMatrix
+ */
+public class CompositionMatrixTest {
+
+    private static final int ROWS = 5000;
+
+    /** Zufällige Formeln über CHNOPS und Fe, ein paar Zeilen leer. */
+    private static Formula[] formeln() {
+        Random random = new Random(7);
+        Element[] elemente = {Element.C, Element.H, Element.N, Element.O, Element.P, Element.S, Element.Fe};
+        Formula[] formeln = new Formula[ROWS];
+        for (int r = 0; r < ROWS; r++) {
+            int[] counts = new int[Formula.VECTOR_LENGTH];
+            if (r % 100 != 0) {
+                for (Element e : elemente) {
+                    counts[e.ordnungsZahl()] = random.nextInt(4) == 0 ? 0 : random.nextInt(200);
+                }
+            }
+            formeln[r] = Formula.ofCounts(counts, 0);
+        }
+        return formeln;
+    }
+
+    private static int[][] spalten(Formula[] formeln) {
+        int[][] columns = new int[CompositionMatrix.COLUMNS][];
+        for (int r = 0; r < formeln.length; r++) {
+            for (int i = 0; i < formeln[r].elementCount(); i++) {
+                int e = formeln[r].elementAt(i).ordinal();
+                if (columns[e] == null) {
+                    columns[e] = new int[formeln.length];
+                }
+                columns[e][r] = formeln[r].countAt(i);
+            }
+        }
+        return columns;
+    }
+
+    @Test
+    public void testMasses_DichtGleichFormula() {
+        Formula[] formeln = formeln();
+        double[] masses = new double[ROWS];
+        CompositionMatrix.masses(spalten(formeln), ROWS, masses);
+        for (int r = 0; r < ROWS; r++) {
+            assertEquals(formeln[r].molecularWeight(), masses[r], "Zeile " + r);
+        }
+    }
+
+    @Test
+    public void testMasses_CsrGleichFormula() {
+        Formula[] formeln = formeln();
+        int[] rowOffsets = new int[ROWS + 1];
+        int[] columnIndices = new int[ROWS * 7];
+        int[] values = new int[ROWS * 7];
+        int n = 0;
+        for (int r = 0; r < ROWS; r++) {
+            for (int i = 0; i < formeln[r].elementCount(); i++) {
+                columnIndices[n] = formeln[r].elementAt(i).ordinal();
+                values[n++] = formeln[r].countAt(i);
+            }
+            rowOffsets[r + 1] = n;
+        }
+        double[] masses = new double[ROWS];
+        CompositionMatrix.masses(rowOffsets, columnIndices, values, masses);
+        double[] percents = new double[n];
+        CompositionMatrix.massPercents(rowOffsets, columnIndices, values, masses, percents);
+        for (int r = 0; r < ROWS; r++) {
+            assertEquals(formeln[r].molecularWeight(), masses[r], "Zeile " + r);
+            for (int i = rowOffsets[r]; i < rowOffsets[r + 1]; i++) {
+                Element e = Element.byOrdnungsZahl(columnIndices[i] + 1);
+                assertEquals(100 * formeln[r].massFraction(e), percents[i], 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void testMassPercents_Dicht() {
+        int[][] columns = new int[CompositionMatrix.COLUMNS][];
+        // Wasser, Glucose, leere Zeile
+        columns[Element.H.ordinal()] = new int[] {2, 12, 0};
+        columns[Element.C.ordinal()] = new int[] {0, 6, 0};
+        columns[Element.O.ordinal()] = new int[] {1, 6, 0};
+        double[] masses = new double[3];
+        CompositionMatrix.masses(columns, 3, masses);
+        assertEquals(Formula.parse("H2O").molecularWeight(), masses[0]);
+        assertEquals(0.0, masses[2]);
+        double[][] percents = CompositionMatrix.massPercents(columns, 3, masses);
+        assertNull(percents[Element.N.ordinal()]);
+        assertEquals(100 * Formula.parse("C6H12O6").massFraction(Element.C), percents[Element.C.ordinal()][1], 1e-9);
+        assertEquals(100.0, percents[Element.H.ordinal()][0] + percents[Element.O.ordinal()][0], 1e-9);
+        assertArrayEquals(new double[] {0, 0, 0}, new double[] {
+                percents[Element.H.ordinal()][2], percents[Element.C.ordinal()][2], percents[Element.O.ordinal()][2]});
+    }
+
+    @Test
+    public void testFehler() {
+        assertThrows(IllegalArgumentException.class,
+                () -> CompositionMatrix.masses(new int[][] {new int[2]}, 3, new double[3]));
+        assertThrows(IllegalArgumentException.class,
+                () -> CompositionMatrix.masses(new int[CompositionMatrix.COLUMNS + 1][], 1, new double[1]));
+        assertThrows(IllegalArgumentException.class,
+                () -> CompositionMatrix.masses(new int[] {0, 2}, new int[] {0}, new int[] {1, 1}, new double[1]));
+        assertThrows(ArrayIndexOutOfBoundsException.class,
+                () -> CompositionMatrix.masses(new int[] {0, 1}, new int[] {118}, new int[] {1}, new double[1]));
+    }
+}
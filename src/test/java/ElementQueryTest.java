@@ -0,0 +1,77 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.egosanto.chemie.utils.AgregatZustand;
+import de.egosanto.chemie.utils.Element;
+import de.egosanto.chemie.utils.ElementGruppe;
+import de.egosanto.chemie.utils.ElementQuery;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.Test;
+
+/**
+ * ElementQueryTest description:
+ * Date: 18.10.2026
+ * Project Name: chemie
+ *
+ * @author Toni Zeidler
+ * @see ElementQuery
+ */
+public class ElementQueryTest {
+
+    private static List<Element> scan(Predicate<Element> predicate) {
+        List<Element> result = new ArrayList<>();
+        for (Element e : Element.values()) {
+            if (predicate.test(e)) {
+                result.add(e);
+            }
+        }
+        return result;
+    }
+
+    @Test
+    public void testWhere_RadioaktiveFeststoffe() {
+        List<Element> expected = scan(e -> e.istRadioaktiv() && e.aggregatZustand() == AgregatZustand.FESTSTOFF);
+        List<Element> result = ElementQuery.where(ElementQuery.radioaktiv())
+                .and(ElementQuery.zustand(AgregatZustand.FESTSTOFF)).toList();
+        assertFalse(result.isEmpty());
+        assertEquals(expected, result);
+    }
+
+    @Test
+    public void testGruppeUndOder() {
+        for (ElementGruppe gruppe : ElementGruppe.values()) {
+            assertEquals(scan(e -> e.elementGruppe() == gruppe), ElementQuery.gruppe(gruppe).toList());
+        }
+        List<Element> expected = scan(e -> e.elementGruppe() == ElementGruppe.EDELGASE || !e.istNatürlichesElement());
+        assertEquals(expected, ElementQuery.where(ElementQuery.gruppe(ElementGruppe.EDELGASE))
+                .or(ElementQuery.natuerlich().not()).toList());
+    }
+
+    @Test
+    public void testBereiche() {
+        assertEquals(scan(e -> e.atomGewicht() >= 50 && e.atomGewicht() <= 100),
+                ElementQuery.atomGewicht(50, 100).toList());
+        assertEquals(scan(e -> e.elektronegativität() >= 2.0 && e.elektronegativität() <= 3.0),
+                ElementQuery.elektronegativitaet(2.0, 3.0).toList());
+        assertEquals(scan(e -> e.ordnungsZahl() >= 60 && e.ordnungsZahl() <= 70),
+                ElementQuery.ordnungsZahl(60, 70).toList());
+        assertEquals(Element.alle(), ElementQuery.ordnungsZahl(0, 200).toList());
+        assertTrue(ElementQuery.ordnungsZahl(5, 4).isEmpty());
+        assertTrue(ElementQuery.atomGewicht(1000, 2000).isEmpty());
+    }
+
+    @Test
+    public void testNotUndAnzahl() {
+        assertEquals(118, ElementQuery.alle().count());
+        assertTrue(ElementQuery.alle().not().isEmpty());
+        assertEquals(ElementQuery.alle(), ElementQuery.radioaktiv().or(ElementQuery.radioaktiv().not()));
+        ElementQuery query = ElementQuery.of(Element.H, Element.Og);
+        assertTrue(query.contains(Element.Og));
+        assertFalse(query.contains(Element.He));
+        assertEquals(2, query.toEnumSet().size());
+        assertEquals(List.of(Element.Og), query.andNot(ElementQuery.of(Element.H)).toList());
+    }
+}
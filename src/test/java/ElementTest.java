@@ -0,0 +1,64 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import de.egosanto.chemie.utils.Element;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * ElementTest description:
+ * Date: 18.10.2026
+ * Project Name: chemie
+ *
+ * @author Toni Zeidler
+ * @see Element
+ */
+public class ElementTest {
+    @Test
+    public void testBySymbol_AlleElemente() {
+        for (Element e : Element.values()) {
+            String symbol = e.symbol();
+            char second = symbol.length() > 1 ? symbol.charAt(1) : '\0';
+            assertSame(e, Element.bySymbol(symbol.charAt(0), second));
+            assertSame(e, Element.bySymbol("x" + symbol + "y", 1, symbol.length() + 1));
+            assertSame(e, Element.byOrdnungsZahl(e.ordnungsZahl()));
+        }
+    }
+
+    @Test
+    public void testBySymbol_Unbekannt() {
+        assertNull(Element.bySymbol('X', 'x'));
+        assertNull(Element.bySymbol('h', '\0'));
+        assertNull(Element.bySymbol('C', 'L'));
+        assertNull(Element.bySymbol("Uuo", 0, 3));
+        assertNull(Element.byOrdnungsZahl(0));
+        assertNull(Element.byOrdnungsZahl(119));
+    }
+
+    @Test
+    public void testAlle_UndSpalten() {
+        assertEquals(List.of(Element.values()), Element.alle());
+        assertSame(Element.alle(), Element.alle());
+        for (Element e : Element.alle()) {
+            assertEquals(e.atomGewicht(), Element.atomGewicht(e.ordnungsZahl()));
+            assertEquals(Math.round(e.atomGewicht() * 1_000_000), Element.atomGewichtMikro(e.ordnungsZahl()));
+            assertEquals(e.elektronegativität(), Element.elektronegativität(e.ordnungsZahl()));
+        }
+        // Die Kopie lässt sich verändern, ohne die Tabelle zu beeinflussen.
+        double[] gewichte = Element.atomGewichte();
+        gewichte[6] = 0;
+        assertEquals(12.011, Element.atomGewicht(6));
+    }
+
+    @Test
+    public void testElektronenInSchale() {
+        assertEquals(3, Element.Na.schalenAnzahl());
+        assertEquals(8, Element.Na.elektronenInSchale(1));
+        assertEquals(1, Element.Na.valenzElektronen());
+        assertArrayEquals(new int[] {2, 8, 1}, Element.Na.elektronenKonfiguration());
+        assertNotSame(Element.Na.elektronenKonfiguration(), Element.Na.elektronenKonfiguration());
+    }
+}
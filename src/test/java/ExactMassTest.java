@@ -0,0 +1,93 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.egosanto.chemie.ExactMass;
+import de.egosanto.chemie.Formula;
+import de.egosanto.chemie.FormulaParseException;
+import de.egosanto.chemie.utils.Element;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+
+/**
+ * ExactMassTest description:
+ * Date: 18.10.2026
+ * Project Name: chemie
+ *
+ * @author Toni Zeidler
+ * @see ExactMass
+ */
+public class ExactMassTest {
+
+    @Test
+    public void testMicros_Wasser() {
+        // 2 * 1.0079 + 15.999
+        assertEquals(18_014_800, ExactMass.micros("H2O"));
+        assertEquals(new BigDecimal("18.014800"), ExactMass.toBigDecimal(ExactMass.micros("H2O")));
+        assertEquals(ExactMass.micros("H2O"), ExactMass.micros(Formula.parse("H2O")));
+    }
+
+    @Test
+    public void testMicros_UnabhaengigVonSchreibweise() {
+        assertEquals(ExactMass.micros("Ca(OH)2"), ExactMass.micros("CaO2H2"));
+        assertEquals(ExactMass.micros("C6H12O6"), ExactMass.micros("OC6O2H12O3"));
+        assertEquals(ExactMass.micros("CuSO4·5H2O"), ExactMass.micros(Formula.parse("CuSO4·5H2O")));
+    }
+
+    @Test
+    public void testMicros_Fehler() {
+        assertThrows(FormulaParseException.class, () -> ExactMass.micros("H2Xx"));
+        // Überlauf der Anzahl (int), nicht der Masse.
+        FormulaParseException anzahl = assertThrows(FormulaParseException.class,
+                () -> ExactMass.micros("(Og2147483647)2147483647"));
+        assertTrue(anzahl.getMessage().startsWith("Anzahl zu groß"), anzahl.getMessage());
+
+        // Überlauf der Masse (long): je Teil 2^31 - 1 Og-Atome zu je rund 2.94 * 10^8
+        // Mikro-g/mol, 14 Teile passen noch in ein long, 15 nicht mehr.
+        String vierzehn = String.join("*", Collections.nCopies(14, "Og2147483647"));
+        assertEquals(14L * Integer.MAX_VALUE * Element.atomGewichtMikro(118), ExactMass.micros(vierzehn));
+        FormulaParseException masse = assertThrows(FormulaParseException.class,
+                () -> ExactMass.micros(vierzehn + "*Og2147483647"));
+        assertTrue(masse.getMessage().startsWith("Masse zu groß"), masse.getMessage());
+    }
+
+    @Test
+    public void testTotal_ParallelGleichSequentiell() {
+        List<String> formulas = new ArrayList<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            formulas.add("C" + (random.nextInt(5000) + 1) + "H" + (random.nextInt(9000) + 1) + "N" + (random.nextInt(900) + 1) + "O" + (random.nextInt(900) + 1));
+        }
+        long sequential = ExactMass.total(formulas);
+        assertEquals(sequential, ExactMass.totalParallel(formulas, ForkJoinPool.commonPool()));
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            assertEquals(sequential, ExactMass.totalParallel(formulas, pool));
+        } finally {
+            pool.shutdown();
+        }
+        Collections.shuffle(formulas, random);
+        assertEquals(sequential, ExactMass.total(formulas));
+    }
+
+    @Test
+    public void testNeumaierSum() {
+        double[] values = {1e16, 1.0, -1e16, 1.0};
+        double naiv = 0;
+        for (double v : values) {
+            naiv += v;
+        }
+        assertNotEquals(2.0, naiv);
+        assertEquals(2.0, ExactMass.neumaierSum(values, 0, values.length));
+
+        double[] zehntel = new double[1_000_000];
+        java.util.Arrays.fill(zehntel, 0.1);
+        assertEquals(100_000.0, ExactMass.neumaierSum(zehntel, 0, zehntel.length), 1e-9);
+    }
+}
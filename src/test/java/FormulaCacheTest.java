@@ -0,0 +1,115 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.egosanto.chemie.FormulaCache;
+import de.egosanto.chemie.FormulaParseException;
+import de.egosanto.chemie.MolecularWeightCalculator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * FormulaCacheTest description:
+ * Date: 18.10.2026
+ * Project Name: chemie
+ *
+ * @author Toni Zeidler
+ * @see FormulaCache
+ */
+public class FormulaCacheTest {
+    @Test
+    public void testGet_TrefferUndFehltreffer() {
+        FormulaCache cache = new FormulaCache(10);
+        assertSame(cache.get("H2O"), cache.get("H2O"));
+        assertEquals(MolecularWeightCalculator.calculateMolecularWeight("H2O"), cache.molecularWeight("H2O"), 0.0001);
+        assertEquals(2, cache.hitCount());
+        assertEquals(1, cache.missCount());
+        assertEquals(2.0 / 3, cache.hitRate(), 0.0001);
+    }
+
+    @Test
+    public void testGet_VerdraengtNichtReferenzierte() {
+        FormulaCache cache = new FormulaCache(2);
+        cache.get("H2O");
+        cache.get("CO2");
+        cache.get("H2O");
+        cache.get("NaCl");
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.evictionCount());
+
+        // H2O wurde gelesen und hat die erste Verdrängung überlebt, CO2 nicht.
+        long misses = cache.missCount();
+        cache.get("NaCl");
+        assertEquals(misses, cache.missCount());
+        cache.get("CO2");
+        assertEquals(misses + 1, cache.missCount());
+    }
+
+    @Test
+    public void testGet_FehlerWirdNichtGespeichert() {
+        FormulaCache cache = new FormulaCache(2);
+        assertThrows(FormulaParseException.class, () -> cache.get("Xx"));
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.loadFailureCount());
+    }
+
+    @Test
+    public void testGet_Gleichzeitig() throws Exception {
+        FormulaCache cache = new FormulaCache(64);
+        String[] formulas = new String[200];
+        double[] expected = new double[formulas.length];
+        for (int n = 0; n < formulas.length; n++) {
+            formulas[n] = "C" + (n + 1) + "H" + (2 * n + 4);
+            expected[n] = MolecularWeightCalculator.calculateMolecularWeight(formulas[n]);
+        }
+        int threads = 8;
+        int calls = 20_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int seed = t;
+                results.add(pool.submit(() -> {
+                    Random random = new Random(seed);
+                    start.await();
+                    int fehler = 0;
+                    for (int i = 0; i < calls; i++) {
+                        // Schief verteilt, damit es häufig gelesene und selten gelesene Formeln gibt.
+                        int n = Math.min(random.nextInt(formulas.length), random.nextInt(formulas.length));
+                        if (cache.molecularWeight(formulas[n]) != expected[n]) {
+                            fehler++;
+                        }
+                    }
+                    return fehler;
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> result : results) {
+                assertEquals(0, result.get(60, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals((long) threads * calls, cache.hitCount() + cache.missCount());
+        assertEquals(64, cache.size());
+        // Jeder gespeicherte Eintrag stammt aus einem Fehltreffer; gleichzeitiges Laden
+        // derselben Formel speichert sie nur einmal.
+        assertTrue(cache.evictionCount() + cache.size() <= cache.missCount());
+        assertTrue(cache.evictionCount() > 0);
+        // Ring und Map sind konsistent: alle Formeln lassen sich weiterhin richtig laden.
+        for (int n = 0; n < formulas.length; n++) {
+            assertEquals(expected[n], cache.molecularWeight(formulas[n]));
+        }
+        assertEquals(64, cache.size());
+    }
+}
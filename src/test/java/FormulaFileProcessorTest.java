@@ -0,0 +1,88 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.egosanto.chemie.FormulaFileProcessor;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * FormulaFileProcessorTest description:
+ * Date: 18.10.2026
+ * Project Name: chemie
+ *
+ * @author Toni Zeidler
+ * @see FormulaFileProcessor
+ */
+public class FormulaFileProcessorTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testProcess_EineFormelProZeile() throws IOException {
+        Path input = dir.resolve("in.txt");
+        Path output = dir.resolve("out.csv");
+        Files.writeString(input, "H2O\r\nCO2\n\nXx\nCa(OH)2");
+
+        FormulaFileProcessor.Summary summary = new FormulaFileProcessor(-1, ',', false, 1).process(input, output);
+
+        assertEquals(5, summary.lines());
+        assertEquals(1, summary.failures());
+        assertEquals("Zeile 4: Unbekanntes Elementsymbol an Position 0 in \"Xx\"", summary.messages().get(0));
+        assertEquals(List.of("H2O,18.0148", "CO2,44.0090", "Xx,NaN", "Ca(OH)2,74.0918"), Files.readAllLines(output));
+    }
+
+    @Test
+    public void testProcess_CsvParallelInReihenfolge() throws IOException {
+        Path input = dir.resolve("in.csv");
+        Path output = dir.resolve("out.csv");
+        List<String> lines = new ArrayList<>();
+        lines.add("id;formula");
+        List<String> expected = new ArrayList<>();
+        expected.add("formula,weight");
+        for (int i = 1; i <= 2000; i++) {
+            lines.add(i + ";\"C" + i + "H4\"");
+            expected.add(String.format(Locale.ROOT, "C%dH4,%.4f", i, i * 12.011 + 4 * 1.0079));
+        }
+        Files.write(input, lines);
+
+        // Kleine Abschnitte, damit die Datei auf viele Abschnitte und Threads verteilt wird.
+        FormulaFileProcessor.Summary summary = new FormulaFileProcessor(1, ';', true, 4, 256).process(input, output);
+
+        assertEquals(2001, summary.lines());
+        assertEquals(0, summary.failures());
+        assertEquals(expected, Files.readAllLines(output));
+    }
+
+    @Test
+    public void testProcess_TiefeVerschachtelungParallel() throws IOException {
+        Path input = dir.resolve("tief.txt");
+        Path output = dir.resolve("out.csv");
+        int tiefe = 50_000;
+        String gueltig = "(".repeat(tiefe) + "H" + ")".repeat(tiefe);
+        String offen = "(".repeat(tiefe) + "H" + ")".repeat(tiefe - 1);
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            lines.add(i == 50 ? gueltig : i == 150 ? offen : "H2O");
+        }
+        Files.write(input, lines);
+
+        // Abschnitte knapp über der Länge einer tiefen Zeile, also mehrere parallel.
+        FormulaFileProcessor.Summary summary = new FormulaFileProcessor(-1, ',', false, 4, 2 * tiefe + 64)
+                .process(input, output);
+
+        assertEquals(200, summary.lines());
+        assertEquals(1, summary.failures());
+        assertTrue(summary.messages().get(0).startsWith("Zeile 151: Klammer wird nicht geschlossen an Position 0"));
+        List<String> written = Files.readAllLines(output);
+        assertEquals(200, written.size());
+        assertEquals(gueltig + ",1.0079", written.get(50));
+        assertEquals(offen + ",NaN", written.get(150));
+        assertEquals("H2O,18.0148", written.get(199));
+    }
+}
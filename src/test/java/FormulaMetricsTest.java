@@ -0,0 +1,109 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.egosanto.chemie.Formula;
+import de.egosanto.chemie.FormulaMetrics;
+import de.egosanto.chemie.FormulaParseException;
+import de.egosanto.chemie.LatencyHistogram;
+import de.egosanto.chemie.MolecularWeightCalculator;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.List;
+import javax.management.ObjectName;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * FormulaMetricsTest description:
+ * Date: 18.10.2026
+ * Project Name: chemie
+ *
+ * @author Toni Zeidler
+ * @see FormulaMetrics
+ */
+public class FormulaMetricsTest {
+
+    @BeforeEach
+    public void einschalten() {
+        FormulaMetrics.reset();
+        FormulaMetrics.setEnabled(true);
+    }
+
+    @AfterEach
+    public void ausschalten() {
+        FormulaMetrics.setEnabled(false);
+        FormulaMetrics.setSlowThresholdNanos(1_000_000);
+        FormulaMetrics.reset();
+    }
+
+    @Test
+    public void testZaehler() {
+        MolecularWeightCalculator.calculateMolecularWeight("H2O");
+        Formula.parse("C6H12O6");
+        assertThrows(FormulaParseException.class, () -> MolecularWeightCalculator.calculateMolecularWeight("H2Xx"));
+        assertEquals(3, FormulaMetrics.parseCount());
+        assertEquals(1, FormulaMetrics.failureCount());
+        assertEquals(1.0 / 3, FormulaMetrics.errorRate(), 1e-9);
+        assertEquals(7, FormulaMetrics.formulaLength().max());
+
+        FormulaMetrics.setEnabled(false);
+        MolecularWeightCalculator.calculateMolecularWeight("H2O");
+        assertEquals(3, FormulaMetrics.parseCount());
+    }
+
+    @Test
+    public void testHistogramm_Perzentile() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long v = 1; v <= 100_000; v++) {
+            histogram.record(v);
+        }
+        assertEquals(100_000, histogram.count());
+        assertEquals(50_000, histogram.valueAtPercentile(50), 50_000 * 0.0625);
+        assertEquals(99_000, histogram.valueAtPercentile(99), 99_000 * 0.0625);
+        assertEquals(100_000, histogram.max(), 100_000 * 0.0625);
+        assertEquals(50_000, histogram.mean(), 50_000 * 0.0625);
+        histogram.reset();
+        assertEquals(0, histogram.valueAtPercentile(99));
+        // Kleine Werte werden exakt gezählt.
+        for (long v = 1; v <= 10; v++) {
+            histogram.record(v);
+        }
+        assertEquals(5, histogram.valueAtPercentile(50));
+        assertEquals(10, histogram.max());
+    }
+
+    @Test
+    public void testJfrEreignisse(@TempDir Path dir) throws Exception {
+        Path datei = dir.resolve("parse.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("de.egosanto.chemie.FormulaParse");
+            recording.start();
+            FormulaMetrics.setSlowThresholdNanos(0);
+            MolecularWeightCalculator.calculateMolecularWeight("NaCl");
+            assertThrows(FormulaParseException.class, () -> MolecularWeightCalculator.calculateMolecularWeight("Na(Cl"));
+            recording.stop();
+            recording.dump(datei);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(datei);
+        assertEquals(2, events.size());
+        assertEquals("NaCl", events.get(0).getString("formula"));
+        assertTrue(events.get(1).getBoolean("failed"));
+        assertTrue(events.get(1).getString("error").contains("Na(Cl"));
+    }
+
+    @Test
+    public void testMBean() throws Exception {
+        FormulaMetrics.registerMBean();
+        FormulaMetrics.registerMBean();
+        MolecularWeightCalculator.calculateMolecularWeight("H2O");
+        ObjectName name = new ObjectName(FormulaMetrics.OBJECT_NAME);
+        assertEquals(1L, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "ParseCount"));
+        assertEquals(Boolean.TRUE, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "Enabled"));
+    }
+}
@@ -0,0 +1,135 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.egosanto.chemie.Formula;
+import de.egosanto.chemie.FormulaSearch;
+import de.egosanto.chemie.utils.Element;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+/**
+ * FormulaSearchTest description:
+ * Date: 18.10.2026
+ * Project Name: chemie
+ *
+ * @author Toni Zeidler
+ * @see FormulaSearch
+ */
+public class FormulaSearchTest {
+
+    private static FormulaSearch chno(double mass, double ppm) {
+        return FormulaSearch.withPpm(mass, ppm)
+                .allow(Element.C, 0, 30)
+                .allow(Element.H, 0, 60)
+                .allow(Element.N, 0, 10)
+                .allow(Element.O, 0, 15);
+    }
+
+    /** Vergleichssuche ohne Beschneidung des Suchraums. */
+    private static Set<Formula> bruteForce(double lo, double hi) {
+        Set<Formula> result = new java.util.HashSet<>();
+        int[] counts = new int[Formula.VECTOR_LENGTH];
+        for (int c = 0; c <= 30; c++) {
+            for (int h = 0; h <= 60; h++) {
+                for (int n = 0; n <= 10; n++) {
+                    for (int o = 0; o <= 15; o++) {
+                        double m = c * Element.C.atomGewicht() + h * Element.H.atomGewicht()
+                                + n * Element.N.atomGewicht() + o * Element.O.atomGewicht();
+                        if (m >= lo && m <= hi) {
+                            counts[6] = c;
+                            counts[1] = h;
+                            counts[7] = n;
+                            counts[8] = o;
+                            result.add(Formula.ofCounts(counts, 0));
+                        }
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    @Test
+    public void testStream_FindetGlucose() {
+        double glucose = Formula.parse("C6H12O6").molecularWeight();
+        Set<Formula> result = chno(glucose, 5).stream().collect(Collectors.toSet());
+        assertTrue(result.contains(Formula.parse("C6H12O6")));
+        double tolerance = glucose * 5e-6;
+        for (Formula f : result) {
+            assertEquals(glucose, f.molecularWeight(), tolerance);
+        }
+    }
+
+    @Test
+    public void testStream_GleichBruteForce() {
+        double mass = 250.0;
+        double tolerance = 0.05;
+        FormulaSearch search = new FormulaSearch(mass, tolerance)
+                .allow(Element.C, 0, 30)
+                .allow(Element.H, 0, 60)
+                .allow(Element.N, 0, 10)
+                .allow(Element.O, 0, 15);
+        List<Formula> result = search.stream().collect(Collectors.toList());
+        Set<Formula> expected = bruteForce(mass - tolerance, mass + tolerance);
+        assertFalse(expected.isEmpty());
+        assertEquals(expected.size(), result.size());
+        assertEquals(expected, Set.copyOf(result));
+    }
+
+    @Test
+    public void testParallelStream_GleichSequentiell() {
+        Set<Formula> sequential = chno(300.0, 1000).stream().collect(Collectors.toSet());
+        Set<Formula> parallel = chno(300.0, 1000).parallelStream().collect(Collectors.toSet());
+        assertFalse(sequential.isEmpty());
+        assertEquals(sequential, parallel);
+    }
+
+    @Test
+    public void testStream_Mindestanzahl() {
+        List<Formula> result = chno(300.0, 1000).allow(Element.S, 1, 2).stream().collect(Collectors.toList());
+        assertFalse(result.isEmpty());
+        for (Formula f : result) {
+            assertTrue(f.count(Element.S) >= 1);
+        }
+    }
+
+    @Test
+    public void testStream_VorzeitigesEnde() {
+        assertEquals(3, chno(400.0, 1000).stream().limit(3).count());
+        assertTrue(chno(400.0, 1000).parallelStream().findAny().isPresent());
+    }
+
+    @Test
+    public void testStream_OhneTreffer() {
+        assertEquals(0, new FormulaSearch(0.5, 0.01).allow(Element.C).allow(Element.H).stream().count());
+        assertEquals(0, new FormulaSearch(18.0, 1).stream().count());
+    }
+
+    @Test
+    public void testStream_OhneLeereFormel() {
+        // Fenster [-5, 15] schließt die Masse 0 ein: H1 bis H14 sowie C, CH und CH2.
+        List<Formula> result = new FormulaSearch(5, 10).allow(Element.C).allow(Element.H).stream()
+                .collect(Collectors.toList());
+        assertEquals(17, result.size());
+        for (Formula formula : result) {
+            assertTrue(formula.elementCount() > 0, formula.toString());
+            assertTrue(formula.molecularWeight() > 0);
+        }
+        assertTrue(new FormulaSearch(5, 10).allow(Element.C).allow(Element.H).parallelStream()
+                .allMatch(formula -> formula.elementCount() > 0));
+        // Nur die leere Formel im Fenster: kein Treffer.
+        assertEquals(0, new FormulaSearch(0.3, 0.4).allow(Element.C).allow(Element.H).stream().count());
+    }
+
+    @Test
+    public void testAllow_UngueltigeGrenzen() {
+        FormulaSearch search = new FormulaSearch(100, 0.1).allow(Element.C);
+        assertThrows(IllegalArgumentException.class, () -> search.allow(Element.H, 3, 2));
+        assertThrows(IllegalArgumentException.class, () -> search.allow(Element.C, 0, 5));
+        assertThrows(IllegalArgumentException.class, () -> new FormulaSearch(-1, 0.1));
+    }
+}
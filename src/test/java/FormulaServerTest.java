@@ -0,0 +1,163 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.egosanto.chemie.FormulaServer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * FormulaServerTest description:
+ * Date: 18.10.2026
+ * Project Name: chemie
+ *
+ * @author Toni Zeidler
+ * @see FormulaServer
+ */
+public class FormulaServerTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private FormulaServer server;
+
+    @BeforeEach
+    public void start() throws Exception {
+        server = new FormulaServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 64, 100).start();
+    }
+
+    @AfterEach
+    public void stop() {
+        server.stop(0);
+    }
+
+    private HttpResponse<String> post(String path, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.port() + path))
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    public void testWeight() throws Exception {
+        HttpResponse<String> response = post("/weight", "H2O\n");
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().startsWith("{\"formula\":\"H2O\",\"weight\":18.01"), response.body());
+        assertEquals(response.body(), post("/weight", "H2O").body());
+        assertEquals(1, server.cache().missCount());
+        assertEquals(1, server.cache().hitCount());
+    }
+
+    @Test
+    public void testWeight_Fehler() throws Exception {
+        HttpResponse<String> response = post("/weight", "H2Xx");
+        assertEquals(400, response.statusCode());
+        assertTrue(response.body().contains("\"position\":2"), response.body());
+    }
+
+    @Test
+    public void testWeights_Stapel() throws Exception {
+        HttpResponse<String> response = post("/weights", "H2O\r\nNaCl\n\nXx\n");
+        assertEquals(200, response.statusCode());
+        String body = response.body();
+        assertTrue(body.startsWith("[{\"formula\":\"H2O\""), body);
+        assertTrue(body.contains("{\"formula\":\"NaCl\",\"weight\":58.44"), body);
+        assertTrue(body.contains("{\"formula\":\"Xx\",\"error\":"), body);
+    }
+
+    @Test
+    public void testCompositions() throws Exception {
+        HttpResponse<String> response = post("/compositions", "[Fe(CN)6]^4-");
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().contains("\"charge\":-4,\"composition\":{\"C\":6,\"N\":6,\"Fe\":1}"), response.body());
+    }
+
+    @Test
+    public void testGrenzen() throws Exception {
+        assertEquals(413, post("/weights", "H2O\n".repeat(101)).statusCode());
+        HttpRequest get = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.port() + "/weight")).build();
+        assertEquals(405, client.send(get, HttpResponse.BodyHandlers.ofString()).statusCode());
+    }
+
+    @Test
+    public void testUeberlast_Abgewiesen() throws Exception {
+        FormulaServer voll = new FormulaServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0, 1);
+        try {
+            voll.start();
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + voll.port() + "/weight"))
+                    .POST(HttpRequest.BodyPublishers.ofString("H2O")).build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            assertEquals(503, response.statusCode());
+            assertEquals("1", response.headers().firstValue("Retry-After").orElse(null));
+            assertEquals(1, voll.rejectedCount());
+            assertEquals(0, voll.requestCount());
+        } finally {
+            voll.stop(0);
+        }
+    }
+
+    @Test
+    public void testUeberlast_LangsamerClientBlockiertNicht() throws Exception {
+        FormulaServer voll = new FormulaServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0, 1);
+        try (Socket langsam = new Socket(InetAddress.getLoopbackAddress(), voll.start().port())) {
+            // Kündigt einen Körper an, sendet ihn aber nie.
+            langsam.getOutputStream().write(("POST /weight HTTP/1.1\r\nHost: localhost\r\n"
+                    + "Content-Length: 1000\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            langsam.getOutputStream().flush();
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + voll.port() + "/weight"))
+                    .timeout(Duration.ofSeconds(5)).POST(HttpRequest.BodyPublishers.ofString("H2O")).build();
+            assertEquals(503, client.send(request, HttpResponse.BodyHandlers.ofString()).statusCode());
+        } finally {
+            voll.stop(0);
+        }
+    }
+
+    @Test
+    public void testGleichzeitig_TiefeVerschachtelung() throws Exception {
+        // Früher: StackOverflowError beim Zerlegen, eine Verbindung ohne Antwort und
+        // zusammengefasste Anfragen, die nie beantwortet wurden.
+        String formula = "(".repeat(60_000) + "H" + ")".repeat(60_000);
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.port() + "/weight"))
+                    .timeout(Duration.ofSeconds(20)).POST(HttpRequest.BodyPublishers.ofString(formula)).build();
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+        }
+        for (CompletableFuture<HttpResponse<String>> response : responses) {
+            assertEquals(200, response.get().statusCode());
+            assertTrue(response.get().body().contains("\"weight\":1.0079"));
+        }
+    }
+
+    @Test
+    public void testGleichzeitig() throws Exception {
+        // Eine lange Formel, damit sich die Berechnungen zeitlich überschneiden können.
+        String formula = "C6H12O6".repeat(20_000);
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.port() + "/composition"))
+                    .POST(HttpRequest.BodyPublishers.ofString(formula)).build();
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+        }
+        for (CompletableFuture<HttpResponse<String>> response : responses) {
+            String body = response.get().body();
+            assertEquals(200, response.get().statusCode());
+            assertTrue(body.endsWith("\"composition\":{\"H\":240000,\"C\":120000,\"O\":120000}}"),
+                    body.substring(Math.max(0, body.length() - 100)));
+        }
+        assertEquals(50, server.requestCount());
+        // Wie viele Anfragen zusammengefasst werden, hängt vom Scheduling ab; mindestens eine
+        // muss selbst rechnen, und zusammengefasste Anfragen liefern dasselbe Ergebnis.
+        long coalesced = server.coalescedCount();
+        assertTrue(coalesced >= 0 && coalesced < 50, "coalesced=" + coalesced);
+    }
+}
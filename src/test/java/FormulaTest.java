@@ -0,0 +1,115 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.egosanto.chemie.Formula;
+import de.egosanto.chemie.FormulaParseException;
+import de.egosanto.chemie.MolecularWeightCalculator;
+import de.egosanto.chemie.utils.Element;
+import org.junit.jupiter.api.Test;
+
+/**
+ * FormulaTest description:
+ * Date: 18.10.2026
+ * Project Name: chemie
+ *
+ * @author Toni Zeidler
+ * @see Formula
+ */
+public class FormulaTest {
+    @Test
+    public void testParse_Klammern() {
+        Formula formula = Formula.parse("Ca(OH)2");
+        assertEquals(1, formula.count(Element.Ca));
+        assertEquals(2, formula.count(Element.O));
+        assertEquals(2, formula.count(Element.H));
+        assertEquals(Formula.parse("CaO2H2"), formula);
+        assertEquals(MolecularWeightCalculator.calculateMolecularWeight("Ca(OH)2"), formula.molecularWeight(), 0.0001);
+    }
+
+    @Test
+    public void testParse_KomplexMitLadung() {
+        Formula formula = Formula.parse("[Fe(CN)6]^4-");
+        assertEquals(-4, formula.charge());
+        assertEquals(1, formula.count(Element.Fe));
+        assertEquals(6, formula.count(Element.C));
+        assertEquals(6, formula.count(Element.N));
+        assertEquals("C6FeN6^4-", formula.toString());
+        assertEquals(formula, Formula.parse(formula.toString()));
+        assertEquals(3, Formula.parse("Fe3+").charge());
+        assertEquals(-2, Formula.parse("SO4^2-").charge());
+        assertEquals(4, Formula.parse("SO4^2-").count(Element.O));
+        assertNotEquals(Formula.parse("Fe"), Formula.parse("Fe3+"));
+    }
+
+    @Test
+    public void testParse_MehratomigeIonen() {
+        Formula nitrat = Formula.parse("NO3^-");
+        assertEquals(3, nitrat.count(Element.O));
+        assertEquals(-1, nitrat.charge());
+        assertEquals(62.004, nitrat.molecularWeight(), 0.01);
+        Formula ammonium = Formula.parse("NH4^+");
+        assertEquals(4, ammonium.count(Element.H));
+        assertEquals(1, ammonium.charge());
+        assertEquals(18.04, ammonium.molecularWeight(), 0.01);
+        Formula sulfat = Formula.parse("SO4^2-");
+        assertEquals(96.06, sulfat.molecularWeight(), 0.01);
+        // Mehrdeutig ohne '^': Anzahl oder Ladung?
+        for (String mehrdeutig : new String[] {"NO3-", "NH4+", "HCO3-", "ClO4-", "MnO4-", "H2PO4-", "[Fe(CN)6]4-"}) {
+            FormulaParseException e = assertThrows(FormulaParseException.class, () -> Formula.parse(mehrdeutig));
+            assertTrue(e.getMessage().contains("'^'"), e.getMessage());
+        }
+        assertEquals(2, Formula.parse("Ca2+").charge());
+        assertEquals(1, Formula.parse("Ca2+").count(Element.Ca));
+    }
+
+    @Test
+    public void testParse_AnzahlNull() {
+        assertThrows(FormulaParseException.class, () -> Formula.parse("C0"));
+        assertThrows(FormulaParseException.class, () -> Formula.parse("H0O"));
+        assertThrows(FormulaParseException.class, () -> Formula.parse("(OH)0"));
+        assertThrows(FormulaParseException.class, () -> Formula.parse("CuSO4·0H2O"));
+    }
+
+    @Test
+    public void testParse_TiefeVerschachtelung() {
+        // Früher rekursiv: StackOverflowError schon bei 20000 Ebenen.
+        int tiefe = 200_000;
+        String formula = "(".repeat(tiefe) + "H" + ")".repeat(tiefe);
+        assertEquals(Element.H.atomGewicht(), MolecularWeightCalculator.calculateMolecularWeight(formula), 1e-12);
+        assertEquals(1, Formula.parse(formula).count(Element.H));
+
+        // Anzahlen der äußeren Klammern wirken auf alle inneren Gruppen.
+        Formula gemischt = Formula.parse("[".repeat(tiefe) + "(OH)2" + "]2".repeat(10) + "]".repeat(tiefe - 10));
+        assertEquals(2048, gemischt.count(Element.O));
+
+        FormulaParseException offen = assertThrows(FormulaParseException.class,
+                () -> Formula.parse("(".repeat(tiefe) + "H" + ")".repeat(tiefe - 1)));
+        assertEquals(0, offen.getPosition());
+        FormulaParseException falsch = assertThrows(FormulaParseException.class,
+                () -> Formula.parse("(".repeat(tiefe) + "H" + ")".repeat(tiefe - 1) + "]"));
+        assertEquals(2 * tiefe, falsch.getPosition());
+    }
+
+    @Test
+    public void testParse_Hydrat() {
+        Formula formula = Formula.parse("CuSO4·5H2O");
+        assertEquals(9, formula.count(Element.O));
+        assertEquals(10, formula.count(Element.H));
+        assertEquals(formula, Formula.parse("CuSO4*5H2O"));
+        double expected = MolecularWeightCalculator.calculateMolecularWeight("CuSO4")
+                + 5 * MolecularWeightCalculator.calculateMolecularWeight("H2O");
+        assertEquals(expected, formula.molecularWeight(), 0.0001);
+        assertEquals(expected, MolecularWeightCalculator.calculateMolecularWeight("CuSO4·5H2O"), 0.0001);
+    }
+
+    @Test
+    public void testParse_Fehler() {
+        assertEquals(2, assertThrows(FormulaParseException.class, () -> Formula.parse("Ca(OH2")).getPosition());
+        assertEquals(5, assertThrows(FormulaParseException.class, () -> Formula.parse("Ca(OH]2")).getPosition());
+        assertEquals(2, assertThrows(FormulaParseException.class, () -> Formula.parse("Ca)2")).getPosition());
+        assertEquals(3, assertThrows(FormulaParseException.class, () -> Formula.parse("Ca()")).getPosition());
+        assertEquals(5, assertThrows(FormulaParseException.class, () -> Formula.parse("CuSO4·")).getPosition() - 1);
+    }
+}
@@ -0,0 +1,120 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.egosanto.chemie.Formula;
+import de.egosanto.chemie.IsotopePattern;
+import de.egosanto.chemie.utils.Element;
+import de.egosanto.chemie.utils.Isotop;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * IsotopePatternTest description:
+ * Date: 18.10.2026
+ * Project Name: chemie
+ *
+ * @author Toni Zeidler
+ * @see IsotopePattern
+ */
+public class IsotopePatternTest {
+
+    @Test
+    public void testIsotope_Kohlenstoff() {
+        List<Isotop> isotope = Element.C.isotope();
+        assertEquals(2, isotope.size());
+        assertEquals(12, isotope.get(0).massenZahl());
+        assertEquals(0.0107, isotope.get(1).haeufigkeit(), 1e-9);
+        assertEquals(12.0, Element.C.monoisotopischeMasse(), 1e-12);
+        // Ohne Isotopendaten: Pseudo-Isotop mit mittlerem Atomgewicht.
+        assertEquals(1, Element.Og.isotope().size());
+        assertEquals(Element.Og.atomGewicht(), Element.Og.monoisotopischeMasse(), 1e-12);
+        assertFalse(Element.Og.hatIsotopendaten());
+        assertTrue(Element.C.hatIsotopendaten());
+    }
+
+    @Test
+    public void testIsotope_AlleStabilenElemente() {
+        for (Element element : Element.alle()) {
+            if (!element.istRadioaktiv()) {
+                assertTrue(element.hatIsotopendaten(), element.symbol());
+            }
+            double summe = 0;
+            double mittel = 0;
+            for (Isotop isotop : element.isotope()) {
+                summe += isotop.haeufigkeit();
+                mittel += isotop.haeufigkeit() * isotop.masse();
+            }
+            assertEquals(1.0, summe, 2e-3, element.symbol());
+            assertEquals(element.atomGewicht(), mittel / summe, 0.05, element.symbol());
+        }
+        // Lanthanoide haben echte Verteilungen statt eines Pseudo-Isotops.
+        assertEquals(7, Element.Nd.isotope().size());
+        assertEquals(141.907729, Element.Nd.monoisotopischeMasse(), 1e-6);
+    }
+
+    @Test
+    public void testMonoisotopicMass_Glucose() {
+        assertEquals(180.06339, Formula.parse("C6H12O6").monoisotopicMass(), 1e-5);
+        assertEquals(17.00274 + Formula.ELECTRON_MASS, Formula.parse("OH-").monoisotopicMass(), 1e-5);
+    }
+
+    @Test
+    public void testOf_Chlor() {
+        IsotopePattern pattern = IsotopePattern.of(Formula.parse("Cl2"));
+        assertEquals(3, pattern.size());
+        assertEquals(70, pattern.nominalMass(0));
+        assertEquals(0.7576 * 0.7576, pattern.abundance(0), 1e-4);
+        assertEquals(2 * 0.7576 * 0.2424, pattern.abundance(1), 1e-4);
+        assertEquals(0.2424 * 0.2424, pattern.abundance(2), 1e-4);
+        assertEquals(2 * 34.968852682, pattern.mass(0), 1e-6);
+    }
+
+    @Test
+    public void testOf_SummeUndMittelwert() {
+        Formula formula = Formula.parse("C254H377N65O75S6");
+        IsotopePattern pattern = IsotopePattern.of(formula, 0);
+        double summe = 0;
+        double mittel = 0;
+        for (int i = 0; i < pattern.size(); i++) {
+            summe += pattern.abundance(i);
+            mittel += pattern.abundance(i) * pattern.mass(i);
+        }
+        assertEquals(1.0, summe, 1e-9);
+        // Der Mittelwert der Verteilung ist die mittlere Masse aus den Isotopendaten.
+        double erwartet = 0;
+        for (int i = 0; i < formula.elementCount(); i++) {
+            for (Isotop isotop : formula.elementAt(i).isotope()) {
+                erwartet += formula.countAt(i) * isotop.haeufigkeit() * isotop.masse();
+            }
+        }
+        assertEquals(erwartet, mittel, 0.01);
+        assertEquals(formula.monoisotopicMass(), pattern.mass(0), 1e-6);
+    }
+
+    @Test
+    public void testOf_GrosseMolekuele() {
+        Formula formula = Formula.parse("C10000H20000N3000O3000S100");
+        IsotopePattern pattern = IsotopePattern.of(formula);
+        // Bei 10000 C-Atomen liegt der größte Peak weit über M, M selbst fällt unter die Grenze.
+        assertTrue(pattern.mass(pattern.mostAbundantIndex()) - formula.monoisotopicMass() > 100);
+        assertTrue(pattern.mass(0) > formula.monoisotopicMass() + 1);
+        assertTrue(pattern.size() < 200);
+        assertEquals(1.0, pattern.relativeIntensity(pattern.mostAbundantIndex()), 1e-12);
+    }
+
+    @Test
+    public void testOfAll_GleichEinzeln() {
+        List<Formula> formulas = new ArrayList<>();
+        for (int n = 1; n <= 300; n++) {
+            formulas.add(Formula.parse("C" + n + "H" + (2 * n + 2) + "Br"));
+        }
+        IsotopePattern[] patterns = IsotopePattern.ofAll(formulas, 1e-3);
+        for (int i = 0; i < formulas.size(); i++) {
+            IsotopePattern expected = IsotopePattern.of(formulas.get(i), 1e-3);
+            assertEquals(expected.size(), patterns[i].size());
+            assertEquals(expected.mass(0), patterns[i].mass(0), 1e-12);
+        }
+    }
+}
@@ -1,8 +1,15 @@
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import de.egosanto.chemie.BatchResult;
+import de.egosanto.chemie.FormulaParseException;
 import de.egosanto.chemie.MolecularWeightCalculator;
 import de.egosanto.chemie.utils.Element;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -28,4 +35,97 @@ public class MolecularWeightCalculatorTest {
         double expected = Element.C.atomGewicht() + 2 * Element.O.atomGewicht();
         assertEquals(expected, result, 0.0001);
     }
+
+    @Test
+    public void testCalculateMolecularWeight_C6H12O6() {
+        double result = MolecularWeightCalculator.calculateMolecularWeight("C6H12O6");
+        double expected = 6 * Element.C.atomGewicht() + 12 * Element.H.atomGewicht() + 6 * Element.O.atomGewicht();
+        assertEquals(expected, result, 0.0001);
+    }
+
+    @Test
+    public void testCalculateMolecularWeight_Slices() {
+        double expected = Element.Na.atomGewicht() + Element.Cl.atomGewicht();
+        char[] chars = "xxNaClyy".toCharArray();
+        byte[] bytes = "xxNaClyy".getBytes(java.nio.charset.StandardCharsets.US_ASCII);
+        assertEquals(expected, MolecularWeightCalculator.calculateMolecularWeight(chars, 2, 4), 0.0001);
+        assertEquals(expected, MolecularWeightCalculator.calculateMolecularWeight(bytes, 2, 4), 0.0001);
+    }
+
+    @Test
+    public void testCalculateMolecularWeight_FehlerMitPosition() {
+        FormulaParseException unbekannt = assertThrows(FormulaParseException.class,
+                () -> MolecularWeightCalculator.calculateMolecularWeight("H2Xx"));
+        assertEquals(2, unbekannt.getPosition());
+
+        FormulaParseException zeichen = assertThrows(FormulaParseException.class,
+                () -> MolecularWeightCalculator.calculateMolecularWeight("H2%O"));
+        assertEquals(2, zeichen.getPosition());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> MolecularWeightCalculator.calculateMolecularWeight(""));
+        assertThrows(FormulaParseException.class,
+                () -> MolecularWeightCalculator.calculateMolecularWeight("  "));
+    }
+
+    @Test
+    public void testCalculateMolecularWeight_StringSignatur() throws Exception {
+        // Gegen die alte Signatur übersetzter Code ruft genau diese Methode auf.
+        Method alt = MolecularWeightCalculator.class.getMethod("calculateMolecularWeight", String.class);
+        assertEquals(double.class, alt.getReturnType());
+        assertEquals(18.0148, (double) alt.invoke(null, "H2O"), 1e-4);
+    }
+
+    @Test
+    public void testCalculateMolecularWeights_StapelMitFehlern() {
+        List<String> formulas = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            formulas.add(i % 1000 == 7 ? "Xx" + i : "C" + (i % 50 + 1) + "H4");
+        }
+        double[] sequentiell = new double[formulas.size()];
+        double[] parallel = new double[formulas.size()];
+
+        BatchResult result = MolecularWeightCalculator.calculateMolecularWeights(formulas, sequentiell);
+        BatchResult resultParallel = MolecularWeightCalculator.calculateMolecularWeightsParallel(formulas, parallel);
+
+        assertEquals(5, result.failureCount());
+        assertEquals(5, resultParallel.failureCount());
+        for (int f = 0; f < 5; f++) {
+            assertEquals(f * 1000 + 7, resultParallel.failures().get(f).index());
+            assertTrue(resultParallel.failures().get(f).exception() instanceof FormulaParseException);
+        }
+        for (int i = 0; i < formulas.size(); i++) {
+            assertEquals(sequentiell[i], parallel[i]);
+        }
+        assertTrue(Double.isNaN(parallel[7]));
+        assertEquals(MolecularWeightCalculator.calculateMolecularWeight("C9H4"), parallel[8], 0.0001);
+    }
+
+    @Test
+    public void testCalculateMolecularWeights_TiefeVerschachtelung() {
+        int tiefe = 100_000;
+        List<String> formulas = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            formulas.add("H2O");
+        }
+        // Gültig und tief verschachtelt; fehlerhaft, weil eine Klammer nicht geschlossen wird.
+        formulas.set(10, "(".repeat(tiefe) + "H" + ")".repeat(tiefe));
+        formulas.set(2500, "(".repeat(tiefe) + "H" + ")".repeat(tiefe - 1));
+        double[] sequentiell = new double[formulas.size()];
+        double[] parallel = new double[formulas.size()];
+
+        BatchResult result = MolecularWeightCalculator.calculateMolecularWeights(formulas, sequentiell);
+        BatchResult resultParallel = MolecularWeightCalculator.calculateMolecularWeightsParallel(formulas, parallel);
+
+        for (BatchResult r : List.of(result, resultParallel)) {
+            assertEquals(1, r.failureCount());
+            assertEquals(2500, r.failures().get(0).index());
+            assertTrue(r.failures().get(0).exception() instanceof FormulaParseException);
+        }
+        for (double[] weights : List.of(sequentiell, parallel)) {
+            assertEquals(Element.H.atomGewicht(), weights[10], 1e-12);
+            assertTrue(Double.isNaN(weights[2500]));
+            assertEquals(MolecularWeightCalculator.calculateMolecularWeight("H2O"), weights[2999]);
+        }
+    }
 }
@@ -0,0 +1,143 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.egosanto.chemie.BatchResult;
+import de.egosanto.chemie.Formula;
+import de.egosanto.chemie.FormulaParseException;
+import de.egosanto.chemie.Reaction;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+
+/**
+ * ReactionTest description:
+ * Date: 18.10.2026
+ * Project Name: chemie
+ *
+ * @author Toni Zeidler
+ * @see Reaction
+ */
+public class ReactionTest {
+
+    private static long[] koeffizienten(Reaction reaction) {
+        long[] k = new long[reaction.speciesCount()];
+        for (int i = 0; i < k.length; i++) {
+            k[i] = reaction.coefficient(i);
+        }
+        return k;
+    }
+
+    @Test
+    public void testBalance_Propan() {
+        Reaction reaction = Reaction.balance("C3H8 + O2 -> CO2 + H2O");
+        assertArrayEquals(new long[] {1, 5, 3, 4}, koeffizienten(reaction));
+        assertEquals("C3H8 + 5 O2 -> 3 CO2 + 4 H2O", reaction.toString());
+        assertTrue(reaction.isBalanced());
+        assertEquals(2, reaction.reactantCount());
+        assertEquals(2, reaction.productCount());
+    }
+
+    @Test
+    public void testBalance_Beispiele() {
+        assertEquals("2 H2 + O2 -> 2 H2O", Reaction.balance("H2 + O2 -> H2O").toString());
+        assertEquals("2 KMnO4 + 16 HCl -> 2 KCl + 2 MnCl2 + 8 H2O + 5 Cl2",
+                Reaction.balance("KMnO4 + HCl -> KCl + MnCl2 + H2O + Cl2").toString());
+        assertEquals("Ca(OH)2 + 2 HCl -> CaCl2 + 2 H2O", Reaction.balance("Ca(OH)2 + HCl = CaCl2 + H2O").toString());
+        assertEquals("2 C8H18 + 25 O2 -> 16 CO2 + 18 H2O", Reaction.balance("C8H18+O2→CO2+H2O").toString());
+    }
+
+    @Test
+    public void testBalance_Ionen() {
+        Reaction reaction = Reaction.balance("MnO4^- + Fe2+ + H+ -> Mn2+ + Fe3+ + H2O");
+        assertArrayEquals(new long[] {1, 5, 8, 1, 5, 4}, koeffizienten(reaction));
+        assertEquals(-1, reaction.species(0).charge());
+        assertTrue(reaction.isBalanced());
+    }
+
+    @Test
+    public void testParse_Koeffizienten() {
+        Reaction reaction = Reaction.parse("2 H2 + O2 -> 2H2O");
+        assertArrayEquals(new long[] {2, 1, 2}, koeffizienten(reaction));
+        assertTrue(reaction.isBalanced());
+        assertEquals(0.0, reaction.massDifference());
+        assertFalse(Reaction.parse("H2 + O2 -> H2O").isBalanced());
+        assertEquals(Formula.parse("H2O"), reaction.species(2));
+        assertEquals("H2O", reaction.speciesName(2));
+    }
+
+    @Test
+    public void testMassenbilanz() {
+        Reaction reaction = Reaction.balance("C6H12O6 + O2 -> CO2 + H2O");
+        assertEquals(0.0, reaction.massDifference());
+        assertEquals(reaction.reactantMass(), reaction.productMass());
+        assertEquals(180.1548 + 6 * 31.998, reaction.reactantMass(), 1e-9);
+        assertEquals(-15.999, Reaction.parse("H2 + O2 -> H2O").massDifference(), 1e-9);
+    }
+
+    @Test
+    public void testBalance_Fehler() {
+        assertThrows(FormulaParseException.class, () -> Reaction.parse("H2 + O2"));
+        assertThrows(FormulaParseException.class, () -> Reaction.parse("H2 + -> H2O"));
+        assertThrows(FormulaParseException.class, () -> Reaction.parse("H2 + Xx -> H2O"));
+        // Keine Lösung
+        assertThrows(IllegalArgumentException.class, () -> Reaction.balance("H2 -> O2"));
+        // Zwei unabhängige Lösungen
+        assertThrows(IllegalArgumentException.class, () -> Reaction.balance("H2 + O2 + O3 -> H2O"));
+        // Nur mit negativem Koeffizienten
+        assertThrows(IllegalArgumentException.class, () -> Reaction.balance("H2O + H2 -> O2"));
+    }
+
+    @Test
+    public void testNullSpace_Netzwerk() {
+        // Verbrennung von CnH(2n+2), n = 1..200: 400 Spezies, 3 Elemente.
+        List<Formula> reactants = new ArrayList<>();
+        for (int n = 1; n <= 200; n++) {
+            reactants.add(Formula.parse("C" + n + "H" + (2 * n + 2)));
+        }
+        reactants.add(Formula.parse("O2"));
+        List<Formula> products = List.of(Formula.parse("CO2"), Formula.parse("H2O"));
+        Reaction reaction = Reaction.of(reactants, products);
+        long[][] basis = reaction.nullSpace();
+        assertEquals(reaction.speciesCount() - 3, basis.length);
+        for (long[] x : basis) {
+            long[] bilanz = new long[Formula.VECTOR_LENGTH];
+            for (int i = 0; i < x.length; i++) {
+                int[] counts = reaction.species(i).countVector();
+                for (int z = 0; z < counts.length; z++) {
+                    bilanz[z] += (i < reaction.reactantCount() ? x[i] : -x[i]) * counts[z];
+                }
+            }
+            assertArrayEquals(new long[Formula.VECTOR_LENGTH], bilanz);
+        }
+    }
+
+    @Test
+    public void testBalanceAll() {
+        List<String> reactions = new ArrayList<>();
+        for (int n = 1; n <= 500; n++) {
+            reactions.add("C" + n + "H" + (2 * n + 2) + " + O2 -> CO2 + H2O");
+        }
+        reactions.add("H2 -> O2");
+        Reaction[] results = new Reaction[reactions.size()];
+        ForkJoinPool pool = new ForkJoinPool(3);
+        BatchResult result;
+        try {
+            result = Reaction.balanceAll(reactions, results, pool);
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(1, result.failureCount());
+        assertEquals(500, result.failures().get(0).index());
+        assertNull(results[500]);
+        for (int i = 0; i < 500; i++) {
+            assertEquals(Reaction.balance(reactions.get(i)).toString(), results[i].toString());
+            assertTrue(results[i].isBalanced());
+        }
+        assertEquals("C3H8 + 5 O2 -> 3 CO2 + 4 H2O", results[2].toString());
+    }
+}